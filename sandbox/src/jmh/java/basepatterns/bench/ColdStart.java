@@ -0,0 +1,223 @@
+package basepatterns.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Замер холодного старта: каждый {@code main} паттернов запускается в новой JVM много раз.
+ * <br>
+ * <br>Для каждого запуска снимаются:
+ * <br>&emsp;- время до первого результата — от запуска процесса до первого байта в stdout;
+ * <br>&emsp;- время до завершения процесса;
+ * <br>&emsp;- число загруженных классов, всего и из кода приложения (по журналу {@code -Xlog:class+load});
+ * <br>&emsp;- пиковый размер резидентной памяти ({@code VmHWM} из {@code /proc/self/status}, только Linux).
+ * <br>В таблицу выводятся медианы, для времени до первого результата также 90-й процентиль.
+ * <br>
+ * <br><b>Режимы</b> ({@code -mode}):
+ * <br>&emsp;- {@code lazy} — классы загружаются и инициализируются по мере обращения, как обычно;
+ * <br>&emsp;- {@code eager} — перед {@code main} все классы пакета паттерна загружаются
+ * и инициализируются заранее (классы бенчмарков пропускаются);
+ * <br>&emsp;- {@code both} — оба режима подряд (по умолчанию).
+ * <br>
+ * <br>Запуск (после {@code mvn -P jmh package}):
+ * <br>{@code java -cp target/benchmarks.jar basepatterns.bench.ColdStart [-n 20] [-w 1] [-mode both] [класс...]}
+ * <br>Без списка классов перебираются все демонстрационные {@code main} из {@link #ENTRY_POINTS}.
+ * Первые {@code -w} запусков каждого варианта прогревают дисковый кеш и не учитываются.
+ */
+public final class ColdStart {
+
+    static final List<String> ENTRY_POINTS = List.of(
+            "basepatterns.creational.abstractfactory.AbstractFactory",
+            "basepatterns.creational.builder.ClassicBuilder",
+            "basepatterns.creational.builder.FluentInterfaceBuilder",
+            "basepatterns.creational.factorymethod.FactoryMethod",
+            "basepatterns.creational.prototype.PrototypePattern",
+            "basepatterns.creational.simplefactory.SimpleFactory",
+            "basepatterns.creational.staticfactorymethod.StaticFactoryMethod",
+            "basepatterns.structural.adapter.ClassAdapter",
+            "basepatterns.structural.adapter.ObjectAdapter",
+            "basepatterns.structural.bridge.Bridge",
+            "basepatterns.structural.composite.CompositePattern");
+
+    private static final String RSS_MARKER = "coldstart.rss.kb=";
+
+    private ColdStart() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = 20;
+        int warmups = 1;
+        List<String> modes = List.of("lazy", "eager");
+        List<String> mains = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-n" -> runs = Integer.parseInt(args[++i]);
+                case "-w" -> warmups = Integer.parseInt(args[++i]);
+                case "-mode" -> {
+                    String mode = args[++i];
+                    modes = mode.equals("both") ? List.of("lazy", "eager") : List.of(mode);
+                }
+                default -> mains.add(args[i]);
+            }
+        }
+        if (mains.isEmpty()) {
+            mains.addAll(ENTRY_POINTS);
+        }
+        System.out.printf("%-70s %-5s %10s %10s %10s %8s %8s %9s%n",
+                "Entry point", "Mode", "First, ms", "p90, ms", "Exit, ms", "Classes", "App", "RSS, MB");
+        for (String main : mains) {
+            for (String mode : modes) {
+                for (int i = 0; i < warmups; i++) {
+                    launch(main, mode);
+                }
+                Launch[] launches = new Launch[runs];
+                for (int i = 0; i < runs; i++) {
+                    launches[i] = launch(main, mode);
+                }
+                System.out.printf("%-70s %-5s %10.1f %10.1f %10.1f %8d %8d %9.1f%n", main, mode,
+                        percentile(launches, 50, Launch::firstOutputNanos) / 1e6,
+                        percentile(launches, 90, Launch::firstOutputNanos) / 1e6,
+                        percentile(launches, 50, Launch::exitNanos) / 1e6,
+                        percentile(launches, 50, Launch::classes),
+                        percentile(launches, 50, Launch::appClasses),
+                        percentile(launches, 50, Launch::peakRssKb) / 1024.0);
+            }
+        }
+    }
+
+    // Результат одного запуска; -1, если величину снять не удалось
+    record Launch(long firstOutputNanos, long exitNanos, long classes, long appClasses, long peakRssKb) {}
+
+    private static Launch launch(String main, String mode) throws IOException, InterruptedException {
+        Path classLog = Files.createTempFile("coldstart", ".log");
+        Path errors = Files.createTempFile("coldstart", ".err");
+        try {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xlog:class+load=info:file=" + classLog,
+                    "-cp", System.getProperty("java.class.path"),
+                    Probe.class.getName(), mode, main)
+                    .redirectError(errors.toFile())
+                    .start();
+            long firstOutput = -1;
+            try (InputStream out = process.getInputStream()) {
+                if (out.read() >= 0) {
+                    firstOutput = System.nanoTime() - start;
+                }
+                out.transferTo(OutputStream.nullOutputStream());
+            }
+            int exitCode = process.waitFor();
+            long exit = System.nanoTime() - start;
+            List<String> errorLines = Files.readAllLines(errors);
+            if (exitCode != 0) {
+                throw new IllegalStateException(main + " (" + mode + ") exited with " + exitCode
+                        + ": " + String.join("\n", errorLines));
+            }
+            long classes = 0;
+            long appClasses = 0;
+            for (String line : Files.readAllLines(classLog)) {
+                classes++;
+                if (line.contains("source: file:") || line.contains("source: jar:")) {
+                    appClasses++;
+                }
+            }
+            long rss = errorLines.stream()
+                    .filter(line -> line.startsWith(RSS_MARKER))
+                    .mapToLong(line -> Long.parseLong(line.substring(RSS_MARKER.length())))
+                    .findFirst()
+                    .orElse(-1);
+            return new Launch(firstOutput, exit, classes, appClasses, rss);
+        } finally {
+            Files.deleteIfExists(classLog);
+            Files.deleteIfExists(errors);
+        }
+    }
+
+    private static long percentile(Launch[] launches, int percent, ToLongFunction<Launch> metric) {
+        long[] values = Arrays.stream(launches).mapToLong(metric).sorted().toArray();
+        return values[Math.min(values.length - 1, values.length * percent / 100)];
+    }
+
+    /**
+     * Точка входа дочерней JVM: {@code Probe <lazy|eager> <класс>}. Запускает {@code main} класса
+     * и по завершении печатает в stderr пиковый размер резидентной памяти.
+     * Сам по себе загружает лишь несколько классов, одинаково в обоих режимах.
+     */
+    public static final class Probe {
+
+        private Probe() {}
+
+        public static void main(String[] args) throws Throwable {
+            String mode = args[0];
+            Class<?> main = Class.forName(args[1], false, Probe.class.getClassLoader());
+            if (mode.equals("eager")) {
+                initializePackage(main);
+            } else if (!mode.equals("lazy")) {
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+            }
+            try {
+                main.getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            System.out.flush();
+            System.err.println(RSS_MARKER + peakRssKb());
+        }
+
+        private static void initializePackage(Class<?> main) throws IOException, URISyntaxException, ClassNotFoundException {
+            String directory = main.getPackageName().replace('.', '/') + '/';
+            Path location = Path.of(main.getProtectionDomain().getCodeSource().getLocation().toURI());
+            List<String> entries = new ArrayList<>();
+            if (Files.isDirectory(location)) {
+                try (Stream<Path> files = Files.list(location.resolve(directory))) {
+                    files.forEach(file -> entries.add(directory + file.getFileName()));
+                }
+            } else {
+                try (JarFile jar = new JarFile(location.toFile())) {
+                    jar.stream().map(JarEntry::getName).forEach(entries::add);
+                }
+            }
+            for (String entry : entries) {
+                if (!entry.startsWith(directory) || !entry.endsWith(".class")
+                        || entry.indexOf('/', directory.length()) >= 0 || isBenchmark(entry)) {
+                    continue;
+                }
+                String name = entry.substring(0, entry.length() - ".class".length()).replace('/', '.');
+                Class.forName(name, true, main.getClassLoader());
+            }
+        }
+
+        // Бенчмарки собираются в тот же пакет, но к паттерну не относятся
+        private static boolean isBenchmark(String entry) {
+            String simpleName = entry.substring(entry.lastIndexOf('/') + 1);
+            int nested = simpleName.indexOf('$');
+            String topLevel = nested >= 0 ? simpleName.substring(0, nested) : simpleName.replace(".class", "");
+            return topLevel.endsWith("Benchmark") || topLevel.endsWith("Footprint");
+        }
+
+        private static long peakRssKb() {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                    if (line.startsWith("VmHWM:")) {
+                        return Long.parseLong(line.replaceAll("\\D", ""));
+                    }
+                }
+            } catch (IOException | NumberFormatException ignored) {
+                // Не Linux: размер памяти не снимается
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package basepatterns.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Состояние, которое на время замера направляет {@code System.out} в пустой поток.
+ * Нужно бенчмаркам, где демонстрационные классы печатают в консоль:
+ * измеряется сама операция, а не вывод в терминал JMH.
+ */
+@State(Scope.Benchmark)
+public class MutedOutput {
+
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void mute() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restore() {
+        System.setOut(originalOut);
+    }
+}
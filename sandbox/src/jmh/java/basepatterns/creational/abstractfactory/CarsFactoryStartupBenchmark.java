@@ -0,0 +1,51 @@
+package basepatterns.creational.abstractfactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время первого получения фабрики по имени семейства в новой JVM:
+ * сгенерированный {@code CarsFactories} против {@link ServiceLoader}.
+ * <br>
+ * <br>Провайдеры для {@link ServiceLoader} описаны в
+ * {@code src/jmh/resources/META-INF/services/basepatterns.creational.abstractfactory.CarsFactory}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1, batchSize = 1)
+@Fork(30)
+public class CarsFactoryStartupBenchmark {
+
+    @Benchmark
+    public CarsFactory generatedRegistry() {
+        return CarsFactories.get("ford");
+    }
+
+    @Benchmark
+    public CarsFactory serviceLoader() {
+        for (CarsFactory factory : ServiceLoader.load(CarsFactory.class)) {
+            if (factory instanceof FordFactory) {
+                return factory;
+            }
+        }
+        return null;
+    }
+
+    // ServiceLoader требует публичные классы провайдеров с публичным конструктором
+    public static class FordProvider extends FordFactory {
+        public FordProvider() {}
+    }
+
+    public static class DodgeProvider extends DodgeFactory {
+        public DodgeProvider() {}
+    }
+}
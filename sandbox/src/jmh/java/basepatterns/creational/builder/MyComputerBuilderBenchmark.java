@@ -0,0 +1,78 @@
+package basepatterns.creational.builder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка {@link MyComputer}: новый строитель на каждый объект, один строитель на поток
+ * и строитель из {@link MyComputer.Builder#threadLocal()}.
+ * <br>
+ * <br>{@link #main(String[])} запускает замер с {@link GCProfiler} ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Thread)
+public class MyComputerBuilderBenchmark {
+
+    private static final String[] CPUS = {"AMD Ryzen 7 5800X", "Intel Core i5-12400", "Intel Core i9-13900K"};
+
+    final MyComputer.Builder builder = new MyComputer.Builder();
+    int next;
+
+    @Benchmark
+    public MyComputer newBuilder() {
+        return new MyComputer.Builder()
+                .withCPU(CPUS[next++ % CPUS.length])
+                .withRAM("16GB DDR4")
+                .withStorage("1TB NVMe SSD")
+                .withGPU("NVIDIA RTX 3070")
+                .build();
+    }
+
+    @Benchmark
+    public MyComputer reusedBuilder() {
+        return builder.reset()
+                .withCPU(CPUS[next++ % CPUS.length])
+                .withRAM("16GB DDR4")
+                .withStorage("1TB NVMe SSD")
+                .withGPU("NVIDIA RTX 3070")
+                .build();
+    }
+
+    @Benchmark
+    public MyComputer threadLocalBuilder() {
+        return MyComputer.Builder.threadLocal()
+                .withCPU(CPUS[next++ % CPUS.length])
+                .withRAM("16GB DDR4")
+                .withStorage("1TB NVMe SSD")
+                .withGPU("NVIDIA RTX 3070")
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MyComputerBuilderBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,72 @@
+package basepatterns.creational.factorymethod;
+
+import basepatterns.metrics.CreationMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы {@link MeteredDepartment}: вызов фабричного метода без метрик, с замером
+ * каждого вызова и с выборочным замером одного вызова из {@link #SAMPLE_INTERVAL}.
+ * Декораторы остальных фабрик пишут метрики тем же путем, поэтому оценка к ним тоже относится.
+ * <br>
+ * <br>{@link #main(String[])} перебирает число потоков 1, 2, 4 ... N (N — число ядер) с {@link GCProfiler}:
+ * {@code gc.alloc.rate.norm} у обоих методов должен совпадать — метрики не выделяют памяти.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreationMetricsBenchmark {
+
+    static final int SAMPLE_INTERVAL = 64;
+
+    Department plain = new ItDepartment();
+    Department metered = new MeteredDepartment(new ItDepartment(), new CreationMetrics("benchmark"));
+    Department sampled = new MeteredDepartment(new ItDepartment(), new CreationMetrics("sampled", SAMPLE_INTERVAL));
+
+    @Benchmark
+    public Emploee plain() {
+        return plain.createEmploee();
+    }
+
+    @Benchmark
+    public Emploee metered() {
+        return metered.createEmploee();
+    }
+
+    @Benchmark
+    public Emploee sampled() {
+        return sampled.createEmploee();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Options options = new OptionsBuilder()
+                    .include(CreationMetricsBenchmark.class.getName())
+                    .addProfiler(GCProfiler.class)
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
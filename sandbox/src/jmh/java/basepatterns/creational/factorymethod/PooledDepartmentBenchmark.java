@@ -0,0 +1,91 @@
+package basepatterns.creational.factorymethod;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сотрудники на задачу: обычный {@link ItDepartment} против {@link PooledDepartment}.
+ * <br>
+ * <br>Операция — «задача», которая держит одновременно {@code inFlight} сотрудников,
+ * а затем их отпускает. При {@code inFlight} больше {@link EmploeePool#LOCAL_CAPACITY}
+ * объекты проходят через общий стек.
+ * <br>
+ * <br>{@link #main(String[])} запускает замер с {@link GCProfiler}: сравниваются
+ * {@code gc.alloc.rate.norm}, {@code gc.count} и {@code gc.time}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx256m")
+@State(Scope.Benchmark)
+public class PooledDepartmentBenchmark {
+
+    @Param({"1", "256"})
+    int inFlight;
+
+    Department plain;
+    PooledDepartment pooled;
+
+    @State(Scope.Thread)
+    public static class Task {
+        Emploee[] emploees;
+
+        @Setup
+        public void setUp(PooledDepartmentBenchmark benchmark) {
+            emploees = new Emploee[benchmark.inFlight];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        plain = new ItDepartment();
+        pooled = new PooledDepartment(new ItDepartment());
+    }
+
+    @Benchmark
+    public void plain(Task task, Blackhole blackhole) {
+        Emploee[] emploees = task.emploees;
+        for (int i = 0; i < emploees.length; i++) {
+            emploees[i] = plain.createEmploee();
+        }
+        blackhole.consume(emploees);
+    }
+
+    @Benchmark
+    public void pooled(Task task, Blackhole blackhole) {
+        Emploee[] emploees = task.emploees;
+        for (int i = 0; i < emploees.length; i++) {
+            emploees[i] = pooled.createEmploee();
+        }
+        blackhole.consume(emploees);
+        for (int i = 0; i < emploees.length; i++) {
+            pooled.release(emploees[i]);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PooledDepartmentBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
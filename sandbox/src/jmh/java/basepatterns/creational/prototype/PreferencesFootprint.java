@@ -0,0 +1,52 @@
+package basepatterns.creational.prototype;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отчет о памяти, занимаемой картой preferences одного профиля:
+ * {@link HashMap} против {@link CompactStringMap}.
+ * <br>
+ * <br>Сами строки ключей и значений не учитываются: они общие для всех профилей.
+ * <br>
+ * <br>{@code java -cp target/benchmarks.jar basepatterns.creational.prototype.PreferencesFootprint}
+ */
+public class PreferencesFootprint {
+
+    public static void main(String[] args) {
+        int profiles = 1_000_000;
+        System.out.printf("%5s %14s %14s %16s %16s%n",
+                "keys", "HashMap, B", "Compact, B", "HashMap x1M, MB", "Compact x1M, MB");
+        for (int keys : new int[]{0, 1, 2, 4, 8, 16}) {
+            List<String> strings = new ArrayList<>();
+            Map<String, String> hashMap = new HashMap<>();
+            CompactStringMap compact = new CompactStringMap();
+            for (int i = 0; i < keys; i++) {
+                String key = "key" + i;
+                String value = "value" + i;
+                strings.add(key);
+                strings.add(value);
+                hashMap.put(key, value);
+                compact.put(key, value);
+            }
+            // В компактной карте лежат экземпляры ключей из общего словаря
+            compact.forEach((key, value) -> strings.add(key));
+            long hashMapSize = sizeWithout(hashMap, strings);
+            long compactSize = sizeWithout(compact, strings);
+            System.out.printf("%5d %14d %14d %16.1f %16.1f%n", keys, hashMapSize, compactSize,
+                    hashMapSize * (double) profiles / (1 << 20), compactSize * (double) profiles / (1 << 20));
+        }
+    }
+
+    private static long sizeWithout(Object map, List<String> strings) {
+        GraphLayout layout = GraphLayout.parseInstance(map);
+        if (!strings.isEmpty()) {
+            layout = layout.subtract(GraphLayout.parseInstance(strings.toArray()));
+        }
+        return layout.totalSize();
+    }
+}
@@ -0,0 +1,96 @@
+package basepatterns.creational.prototype;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Копирование прототипа с copy-on-write preferences против прежнего
+ * копирования карты в конструкторе ({@link EagerPrototype}).
+ * <br>
+ * <br>Скорость выделения памяти: {@code java -jar target/benchmarks.jar PrototypeCopyBenchmark -prof gc}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrototypeCopyBenchmark {
+
+    @Param({"2", "16"})
+    int preferences;
+
+    ConcretPrototype proto;
+    EagerPrototype eager;
+
+    @Setup
+    public void setUp() {
+        proto = new ConcretPrototype("John", 25);
+        eager = new EagerPrototype("John", 25);
+        for (int i = 0; i < preferences; i++) {
+            proto.addPreferences("key" + i, "value" + i);
+            eager.preferences.put("key" + i, "value" + i);
+        }
+    }
+
+    @Benchmark
+    public Prototype copyOnWrite() {
+        return proto.copy();
+    }
+
+    @Benchmark
+    public Prototype copyOnWriteThenWrite() {
+        ConcretPrototype copy = (ConcretPrototype) proto.copy();
+        copy.addPreferences("language", "fr");
+        return copy;
+    }
+
+    @Benchmark
+    public Prototype eagerCopy() {
+        return eager.copy();
+    }
+
+    @Benchmark
+    public Prototype eagerCopyThenWrite() {
+        EagerPrototype copy = (EagerPrototype) eager.copy();
+        copy.preferences.put("language", "fr");
+        return copy;
+    }
+
+    // Прежняя реализация ConcretPrototype: карта копируется при каждом copy()
+    static class EagerPrototype implements Prototype {
+        final String name;
+        final int value;
+        final Map<String, String> preferences;
+
+        EagerPrototype(String name, int value) {
+            this.name = name;
+            this.value = value;
+            this.preferences = new HashMap<>();
+        }
+
+        EagerPrototype(EagerPrototype source) {
+            this.name = source.name;
+            this.value = source.value;
+            this.preferences = new HashMap<>(source.preferences);
+        }
+
+        @Override
+        public Prototype copy() {
+            return new EagerPrototype(this);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package basepatterns.creational.prototype;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск пачки из {@code batch} копий: по одной через {@link PrototypeRegistry#copy(String)},
+ * одним вызовом {@link PrototypeRegistry#copy(String, Prototype[], int, int)}
+ * и с возвратом копий в пул.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PrototypeRegistryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Registry {
+        final PrototypeRegistry registry = new PrototypeRegistry();
+
+        @Setup
+        public void setUp() {
+            ConcretPrototype proto = new ConcretPrototype("John", 25);
+            proto.addPreferences("language", "en");
+            proto.addPreferences("notifications", "enabled");
+            registry.register("plain", proto);
+            registry.register("pooled", proto, 4096);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+        @Param({"1000"})
+        int batch;
+
+        Prototype[] copies;
+
+        @Setup
+        public void setUp() {
+            copies = new Prototype[batch];
+        }
+    }
+
+    @Benchmark
+    public Prototype[] oneByOne(Registry registry, Batch batch) {
+        Prototype[] copies = batch.copies;
+        for (int i = 0; i < copies.length; i++) {
+            copies[i] = registry.registry.copy("plain");
+        }
+        return copies;
+    }
+
+    @Benchmark
+    public Prototype[] bulk(Registry registry, Batch batch) {
+        registry.registry.copy("plain", batch.copies, 0, batch.copies.length);
+        return batch.copies;
+    }
+
+    @Benchmark
+    public Prototype[] bulkPooled(Registry registry, Batch batch) {
+        PrototypeRegistry.Template template = registry.registry.template("pooled");
+        Prototype[] copies = batch.copies;
+        template.copy(copies, 0, copies.length);
+        for (Prototype copy : copies) {
+            template.release(copy);
+        }
+        return copies;
+    }
+}
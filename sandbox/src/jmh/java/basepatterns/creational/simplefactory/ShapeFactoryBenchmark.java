@@ -0,0 +1,64 @@
+package basepatterns.creational.simplefactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShapeFactory#getShape(ShapeType)} против {@link ShapeFactory#getSharedShape(ShapeType)}
+ * при нескольких потоках. {@link #switchInstance()} — прежняя фабрика на {@code switch} без реестра,
+ * точка отсчета для цены поиска поставщика. Выделение памяти: {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Thread)
+public class ShapeFactoryBenchmark {
+
+    private static final ShapeType[] TYPES = ShapeType.values();
+
+    int next;
+
+    @Benchmark
+    public Shape switchInstance() {
+        return switchShape(TYPES[next++ % TYPES.length]);
+    }
+
+    @Benchmark
+    public Shape newInstance() {
+        return ShapeFactory.getShape(TYPES[next++ % TYPES.length]);
+    }
+
+    @Benchmark
+    public Shape sharedInstance() {
+        return ShapeFactory.getSharedShape(TYPES[next++ % TYPES.length]);
+    }
+
+    // Фабрика в том виде, в каком она была до реестра
+    private static Shape switchShape(ShapeType shapeType) {
+        switch (shapeType) {
+            case CIRCLE -> {
+                return new Circle();
+            }
+            case RECTANGLE -> {
+                return new Rectangle();
+            }
+            case TRIANGLE -> {
+                return new Triangle();
+            }
+            default -> throw new UnsupportedOperationException();
+        }
+    }
+}
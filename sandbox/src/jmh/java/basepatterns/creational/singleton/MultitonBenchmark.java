@@ -0,0 +1,109 @@
+package basepatterns.creational.singleton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Получение экземпляра по ключу при конкурентном доступе: {@link Multiton}
+ * против карты под общей блокировкой ({@code synchronized}).
+ * <br>
+ * <br>Все ключи созданы заранее, потоки запрашивают случайные ключи, так что
+ * при нескольких потоках общая блокировка становится узким местом.
+ * <br>
+ * <br>Запуск с перебором числа потоков 1, 2, 4 ... N (N — число ядер):
+ * <br>{@code java -cp target/benchmarks.jar basepatterns.creational.singleton.MultitonBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MultitonBenchmark {
+
+    @Param({"16", "1024"})
+    int keys;
+
+    String[] names;
+    Multiton<String, Object> multiton;
+    SynchronizedMultiton<String, Object> synchronizedMap;
+
+    @Setup
+    public void setUp() {
+        names = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            names[i] = "tenant-" + i;
+        }
+        multiton = new Multiton<>(MultitonBenchmark::create);
+        synchronizedMap = new SynchronizedMultiton<>();
+        for (String name : names) {
+            multiton.get(name);
+            synchronizedMap.get(name, MultitonBenchmark::create);
+        }
+    }
+
+    @Benchmark
+    public Object multiton() {
+        return multiton.get(randomKey());
+    }
+
+    @Benchmark
+    public Object synchronizedMap() {
+        return synchronizedMap.get(randomKey(), MultitonBenchmark::create);
+    }
+
+    private String randomKey() {
+        return names[ThreadLocalRandom.current().nextInt(keys)];
+    }
+
+    private static Object create(String key) {
+        return new Object();
+    }
+
+    // Исходный вариант: одна блокировка на все ключи, как synchronized getInstance() у Singleton2
+    static final class SynchronizedMultiton<K, V> {
+        private final Map<K, V> instances = new HashMap<>();
+
+        synchronized V get(K key, Function<? super K, ? extends V> factory) {
+            V value = instances.get(key);
+            if (value == null) {
+                value = factory.apply(key);
+                instances.put(key, value);
+            }
+            return value;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Options options = new OptionsBuilder()
+                    .include(MultitonBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package basepatterns.creational.singleton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность и задержка {@code getInstance()} для всех вариантов одиночки.
+ * <br>
+ * <br>Запуск с перебором числа потоков 1, 2, 4 ... N (N — число ядер):
+ * <br>{@code java -cp target/benchmarks.jar basepatterns.creational.singleton.SingletonBenchmark}
+ * <br>
+ * <br>{@link Singleton1} не потокобезопасен: при числе потоков больше одного
+ * результат приведен только для сравнения.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SingletonBenchmark {
+
+    @Benchmark
+    public Singleton1 unsynchronized() {
+        return Singleton1.getInstance();
+    }
+
+    @Benchmark
+    public Singleton2 synchronizedMethod() {
+        return Singleton2.getInstance();
+    }
+
+    @Benchmark
+    public ClassicSingleton doubleCheckedLocking() {
+        return ClassicSingleton.getInstance();
+    }
+
+    @Benchmark
+    public HolderSingleton holder() {
+        return HolderSingleton.getInstance();
+    }
+
+    @Benchmark
+    public EnumSingleton enumConstant() {
+        return EnumSingleton.getInstance();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Options options = new OptionsBuilder()
+                    .include(SingletonBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package basepatterns.creational.singleton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость первого вызова {@code getInstance()}: загрузка и инициализация класса
+ * плюс создание экземпляра. Каждый замер выполняется в новой JVM,
+ * поэтому вызов действительно первый.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1, batchSize = 1)
+@Fork(30)
+public class SingletonInitBenchmark {
+
+    @Benchmark
+    public Singleton1 unsynchronized() {
+        return Singleton1.getInstance();
+    }
+
+    @Benchmark
+    public Singleton2 synchronizedMethod() {
+        return Singleton2.getInstance();
+    }
+
+    @Benchmark
+    public ClassicSingleton doubleCheckedLocking() {
+        return ClassicSingleton.getInstance();
+    }
+
+    @Benchmark
+    public HolderSingleton holder() {
+        return HolderSingleton.getInstance();
+    }
+
+    @Benchmark
+    public EnumSingleton enumConstant() {
+        return EnumSingleton.getInstance();
+    }
+}
@@ -0,0 +1,90 @@
+package basepatterns.creational.staticfactorymethod;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Статические фабричные методы с канонизацией экземпляров.
+ * <br>
+ * <br>&emsp;- {@code smallInteger} — числа из заранее созданного диапазона;
+ * <br>&emsp;- {@code largeInteger} — 2000 разных чисел вне диапазона, через кеш строк;
+ * <br>&emsp;- {@code string} — 2000 разных строк.
+ * <br>При {@code cacheSize = 0} кеш строк отключен и каждый вызов создает объект, как раньше.
+ * При {@code cacheSize = 1024} кеш меньше набора ключей и часть вызовов — промахи.
+ * <br>
+ * <br>{@link #main(String[])} запускает замер с {@link GCProfiler} и печатает долю попаданий.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StaticFactoryMethodBenchmark {
+
+    private static final int KEYS = 2000;
+
+    @Param({"0", "1024", "4096"})
+    int cacheSize;
+
+    String[] strings;
+
+    @Setup
+    public void setUp() {
+        StaticFactoryMethod.configureCache(cacheSize);
+        strings = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            strings[i] = "key-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        long hits = StaticFactoryMethod.getCacheHits();
+        long misses = StaticFactoryMethod.getCacheMisses();
+        System.out.printf("%ncache size %d: hits %d, misses %d, hit ratio %.3f%n",
+                cacheSize, hits, misses, hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+    }
+
+    @Benchmark
+    public StaticFactoryMethod smallInteger() {
+        return StaticFactoryMethod.createFromInteger(ThreadLocalRandom.current().nextInt(128));
+    }
+
+    @Benchmark
+    public StaticFactoryMethod largeInteger() {
+        return StaticFactoryMethod.createFromInteger(1_000_000 + ThreadLocalRandom.current().nextInt(KEYS));
+    }
+
+    @Benchmark
+    public StaticFactoryMethod string() {
+        // Новая строка с тем же содержимым, как после разбора входных данных
+        return StaticFactoryMethod.createFromString(new String(strings[ThreadLocalRandom.current().nextInt(KEYS)]));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StaticFactoryMethodBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,89 @@
+package basepatterns.output;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Строк в секунду: {@link PrintStream}, настроенный как {@code System.out}, против {@link AsyncLineSink}.
+ * Оба пишут в файл {@code path} (по умолчанию {@code /dev/null}).
+ * <br>
+ * <br>Для асинхронного получателя результат ограничен скоростью фонового потока:
+ * при заполненном кольцевом буфере производители ждут.
+ * <br>
+ * <br>Перебор 1, 2, 4 ... 32 потоков:
+ * <br>{@code java -cp target/benchmarks.jar basepatterns.output.LineSinkBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineSinkBenchmark {
+
+    @Param({"/dev/null"})
+    String path;
+
+    @Param({"printStream", "async"})
+    String sink;
+
+    LineSink target;
+    PrintStream printStream;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (sink.equals("async")) {
+            target = new AsyncLineSink(FileChannel.open(Path.of(path), StandardOpenOption.WRITE), true);
+        } else {
+            // Как System.out: буфер 8 КБ и сброс после каждой строки
+            printStream = new PrintStream(new BufferedOutputStream(new FileOutputStream(path), 8192), true);
+            target = printStream::println;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        target.close();
+        if (printStream != null) {
+            printStream.close();
+        }
+    }
+
+    @Benchmark
+    public void println() {
+        target.println("Leaf Leaf 1 is performing operation.");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(LineSinkBenchmark.class.getName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
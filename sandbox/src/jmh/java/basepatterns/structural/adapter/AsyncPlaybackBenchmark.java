@@ -0,0 +1,104 @@
+package basepatterns.structural.adapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время обработки {@code sessions} одновременных запросов на воспроизведение,
+ * каждый из которых {@code latencyMs} ждет ввода-вывода.
+ * <br>
+ * <br>{@code perTask} — {@link AsyncMediaPlayer#newPerTaskExecutor()} (виртуальные потоки на Java 21+),
+ * {@code fixed} — пул из {@code poolSize} платформенных потоков.
+ * <br>
+ * <br>При {@code maxConcurrent < sessions} работает ограничение: одновременно идет не больше
+ * {@code maxConcurrent} воспроизведений, остальные ждут в очереди. После каждой итерации печатается пик
+ * числа живых потоков JVM; на Java 17 он показывает, что кеширующий пул
+ * создает потоки только под разрешенные воспроизведения.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncPlaybackBenchmark {
+
+    @Param({"10000"})
+    int sessions;
+
+    @Param({"10"})
+    int latencyMs;
+
+    @Param({"100", "10000"})
+    int maxConcurrent;
+
+    @Param({"200"})
+    int poolSize;
+
+    @Param({"perTask", "fixed"})
+    String executor;
+
+    AsyncMediaPlayer player;
+    ExecutorService fixedPool;
+
+    @Setup
+    public void setUp() {
+        MediaPlayer slowPlayer = (audioType, fileName) -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        if (executor.equals("fixed")) {
+            fixedPool = Executors.newFixedThreadPool(poolSize);
+            player = new AsyncMediaPlayer(slowPlayer, maxConcurrent, fixedPool);
+        } else {
+            player = new AsyncMediaPlayer(slowPlayer, maxConcurrent);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        player.close();
+        if (fixedPool != null) {
+            fixedPool.shutdown();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakThreads() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakThreads() {
+        System.out.println("peak threads: " + ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    }
+
+    @Benchmark
+    public void playAll() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[sessions];
+        for (int i = 0; i < sessions; i++) {
+            futures[i] = player.playAsync("mp4", "session" + i + ".mp4");
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
@@ -0,0 +1,105 @@
+package basepatterns.structural.adapter;
+
+import basepatterns.bench.MutedOutput;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Скорость воспроизведения большого локального файла через {@link MediaAdapter}
+ * с {@link MappedPlayback} против чтения {@link InputStream} в массив в куче.
+ * <br>
+ * <br>Счетчик {@code megabytes} в результатах показывает пропускную способность в МБ/с.
+ * Файл размером {@code fileMb} создается во временном каталоге и удаляется после замера.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MediaPlaybackBenchmark {
+
+    @Param({"1024"})
+    int fileMb;
+
+    Path file;
+    long checksum;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public double megabytes;
+    }
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("playback", ".mp4");
+        byte[] chunk = new byte[1 << 20];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) i;
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < fileMb; i++) {
+                out.write(chunk);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long mapped(Bytes bytes, MutedOutput out) {
+        MediaAdapter adapter = new MediaAdapter("mp4", this::decode);
+        adapter.play("mp4", file.toString());
+        bytes.megabytes += fileMb;
+        return checksum;
+    }
+
+    @Benchmark
+    public long heapCopy(Bytes bytes) throws IOException {
+        byte[] frame = new byte[MappedPlayback.DEFAULT_FRAME_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(frame)) > 0) {
+                decode(ByteBuffer.wrap(frame, 0, read));
+            }
+        }
+        bytes.megabytes += fileMb;
+        return checksum;
+    }
+
+    // Имитация декодера: читает каждый байт кадра
+    private void decode(ByteBuffer frame) {
+        long sum = checksum;
+        while (frame.remaining() >= Long.BYTES) {
+            sum += frame.getLong();
+        }
+        while (frame.hasRemaining()) {
+            sum += frame.get();
+        }
+        checksum = sum;
+    }
+}
@@ -0,0 +1,88 @@
+package basepatterns.structural.adapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование пачки показаний в 12 вольт: по одному {@link Volt} на элемент
+ * против пакетного {@link SocketAdapter#convertTo12Volt(int[])}.
+ * <br>
+ * <br>Преобразование идет на месте, поэтому каждая операция сначала восстанавливает
+ * исходные данные копией; {@link #copyOnly()} показывает цену этой копии.
+ * Показания от 0 до 1000 В, так что при поштучном варианте часть {@code Volt.of}
+ * выходит за кеш и выделяет объект.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class VoltBatchBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    int size;
+
+    SocketAdapter adapter = new SocketClassAdapter();
+    int[] source;
+    int[] volts;
+    IntBuffer direct;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        source = new int[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = random.nextInt(1001);
+        }
+        volts = new int[size];
+        direct = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    @Benchmark
+    public int[] copyOnly() {
+        System.arraycopy(source, 0, volts, 0, size);
+        return volts;
+    }
+
+    // Поштучно: входное значение оборачивается в Volt и делится, как в get12Volt
+    @Benchmark
+    public int[] perCallVolt() {
+        System.arraycopy(source, 0, volts, 0, size);
+        for (int i = 0; i < volts.length; i++) {
+            Volt input = Volt.of(volts[i]);
+            volts[i] = Volt.of(input.getVolts() / 10).getVolts();
+        }
+        return volts;
+    }
+
+    @Benchmark
+    public int[] batchArray() {
+        System.arraycopy(source, 0, volts, 0, size);
+        adapter.convertTo12Volt(volts);
+        return volts;
+    }
+
+    @Benchmark
+    public IntBuffer batchDirectBuffer() {
+        direct.clear();
+        direct.put(source).flip();
+        adapter.convertTo12Volt(direct);
+        return direct;
+    }
+}
@@ -0,0 +1,58 @@
+package basepatterns.structural.adapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вызовы {@link SocketAdapter} с кешированными {@link Volt}.
+ * <br>
+ * <br>{@link #main(String[])} запускает замер с {@link GCProfiler}:
+ * в строке {@code gc.alloc.rate.norm} для каждого метода ожидается ~0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VoltBenchmark {
+
+    SocketAdapter adapter = new SocketClassAdapter();
+
+    @Benchmark
+    public Volt get120Volt() {
+        return adapter.get120Volt();
+    }
+
+    @Benchmark
+    public Volt get12Volt() {
+        return adapter.get12Volt();
+    }
+
+    @Benchmark
+    public Volt get3Volt() {
+        return adapter.get3Volt();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(VoltBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
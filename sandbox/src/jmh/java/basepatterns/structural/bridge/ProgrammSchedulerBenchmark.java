@@ -0,0 +1,64 @@
+package basepatterns.structural.bridge;
+
+import basepatterns.bench.MutedOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пачка из {@code batch} программ {@code BankApp}/{@code ShopApp}: последовательно
+ * и через {@link ProgrammScheduler}. Вывод направляется в пустой поток ({@link MutedOutput}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgrammSchedulerBenchmark {
+
+    @Param({"100000"})
+    int batch;
+
+    List<Programm> programms;
+    ProgrammScheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        programms = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            programms.add(i % 2 == 0 ? new BankApp(new JavaDeveloper()) : new ShopApp(new CppDeveloper()));
+        }
+        scheduler = new ProgrammScheduler();
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Benchmark
+    public void sequential(MutedOutput out) {
+        for (Programm programm : programms) {
+            programm.createProgramm();
+        }
+    }
+
+    @Benchmark
+    public void scheduled(MutedOutput out) {
+        scheduler.submit(programms).join();
+    }
+}
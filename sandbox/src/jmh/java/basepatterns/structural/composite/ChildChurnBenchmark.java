@@ -0,0 +1,67 @@
+package basepatterns.structural.composite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Удаление случайного ребенка и повторное добавление его в композит
+ * с {@code children} разного размера: {@code ArrayList} против {@link IndexedChildren}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChildChurnBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int children;
+
+    @Param({"false", "true"})
+    boolean fastRemoval;
+
+    Composite composite;
+    Component[] victims;
+    int next;
+
+    @Setup
+    public void setUp() {
+        composite = new Composite("root", fastRemoval);
+        Component[] all = new Component[children];
+        for (int i = 0; i < children; i++) {
+            all[i] = new Leaf("l" + i);
+            composite.add(all[i]);
+        }
+        Random random = new Random(42);
+        victims = new Component[1 << 16];
+        for (int i = 0; i < victims.length; i++) {
+            victims[i] = all[random.nextInt(children)];
+        }
+    }
+
+    @Benchmark
+    public Component removeAndAdd() {
+        Component victim = victims[next++ & (victims.length - 1)];
+        composite.remove(victim);
+        composite.add(victim);
+        return victim;
+    }
+
+    @Benchmark
+    public Component getChild() {
+        return composite.getChild(next++ % children);
+    }
+}
@@ -0,0 +1,55 @@
+package basepatterns.structural.composite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Component#stream()} и {@link Component#parallelStream()} на широком дереве:
+ * полный обход с фильтрацией и поиск с ранней остановкой.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ComponentStreamBenchmark {
+
+    @Param({"1000000"})
+    int leaves;
+
+    Component root;
+    String firstLeafName;
+
+    @Setup
+    public void setUp() {
+        root = CompositeTraversalBenchmark.wide(leaves, 1000);
+        firstLeafName = "l10";
+    }
+
+    @Benchmark
+    public long sequentialCount() {
+        return root.stream().filter(c -> c instanceof Leaf leaf && leaf.getName().endsWith("7")).count();
+    }
+
+    @Benchmark
+    public long parallelCount() {
+        return root.parallelStream().filter(c -> c instanceof Leaf leaf && leaf.getName().endsWith("7")).count();
+    }
+
+    @Benchmark
+    public boolean sequentialAnyMatch() {
+        return root.stream().anyMatch(c -> c instanceof Leaf leaf && leaf.getName().equals(firstLeafName));
+    }
+}
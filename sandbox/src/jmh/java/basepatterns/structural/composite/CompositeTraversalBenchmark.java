@@ -0,0 +1,129 @@
+package basepatterns.structural.composite;
+
+import basepatterns.bench.MutedOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обход дерева из {@code leaves} листьев: рекурсивный {@link Component#operation()},
+ * явный стек и {@link java.util.concurrent.ForkJoinPool}.
+ * <br>
+ * <br>Вывод операций направляется в пустой поток ({@link MutedOutput}).
+ * Глубокая цепочка ({@link DeepTree}) рекурсией не обходится — переполняется стек.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CompositeTraversalBenchmark {
+
+    public enum Shape {
+        // Каждый композит содержит 10 детей
+        BALANCED,
+        // Корень с 1000 композитами по leaves / 1000 листьев
+        WIDE
+    }
+
+    @State(Scope.Benchmark)
+    public static class Tree {
+        @Param({"1000000"})
+        int leaves;
+
+        @Param({"BALANCED", "WIDE"})
+        Shape shape;
+
+        Component root;
+
+        @Setup
+        public void setUp() {
+            root = shape == Shape.BALANCED ? balanced(leaves, 10) : wide(leaves, 1000);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DeepTree {
+        @Param({"1000000"})
+        int depth;
+
+        Component root;
+
+        @Setup
+        public void setUp() {
+            // Снизу вверх: узел получает родителя уже собранным, и add не проходит весь путь к корню
+            Composite current = new Composite(String.valueOf(depth - 1));
+            for (int i = depth - 2; i >= 0; i--) {
+                Composite parent = new Composite(String.valueOf(i));
+                parent.add(current);
+                parent.add(new Leaf(String.valueOf(i)));
+                current = parent;
+            }
+            root = current;
+        }
+    }
+
+    @Benchmark
+    public void recursive(Tree tree, MutedOutput out) {
+        tree.root.operation();
+    }
+
+    @Benchmark
+    public void iterative(Tree tree, MutedOutput out) {
+        CompositeTraversal.iterativeOperation(tree.root);
+    }
+
+    @Benchmark
+    public void parallel(Tree tree, MutedOutput out) {
+        CompositeTraversal.parallelOperation(tree.root);
+    }
+
+    @Benchmark
+    public void deepIterative(DeepTree tree, MutedOutput out) {
+        CompositeTraversal.iterativeOperation(tree.root);
+    }
+
+    @Benchmark
+    public void deepParallel(DeepTree tree, MutedOutput out) {
+        CompositeTraversal.parallelOperation(tree.root);
+    }
+
+    static Component balanced(int leaves, int fanout) {
+        if (leaves <= fanout) {
+            Composite node = new Composite("c" + leaves);
+            for (int i = 0; i < leaves; i++) {
+                node.add(new Leaf("l" + i));
+            }
+            return node;
+        }
+        Composite node = new Composite("c" + leaves);
+        int perChild = (leaves + fanout - 1) / fanout;
+        for (int left = leaves; left > 0; left -= perChild) {
+            node.add(balanced(Math.min(perChild, left), fanout));
+        }
+        return node;
+    }
+
+    static Component wide(int leaves, int groups) {
+        Composite root = new Composite("root");
+        int perGroup = leaves / groups;
+        for (int g = 0; g < groups; g++) {
+            Composite group = new Composite("g" + g);
+            for (int i = 0; i < perGroup; i++) {
+                group.add(new Leaf("l" + i));
+            }
+            root.add(group);
+        }
+        return root;
+    }
+}
@@ -0,0 +1,63 @@
+package basepatterns.structural.composite;
+
+import basepatterns.bench.MutedOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обход объектного дерева и того же дерева в массивах {@link FlatTree}: собственный {@code operation()}
+ * и обобщенный {@link Component#stream()}, который идет по детям курсором {@link Component#children()}.
+ * Объем памяти удобно сравнить, запустив с профилировщиком {@code -prof gc}
+ * или посмотрев гистограмму кучи после {@link #setUp()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FlatTreeBenchmark {
+
+    @Param({"1000000"})
+    int leaves;
+
+    Component objectTree;
+    Component flatTree;
+
+    @Setup
+    public void setUp() {
+        objectTree = CompositeTraversalBenchmark.balanced(leaves, 10);
+        flatTree = FlatTree.copyOf(objectTree);
+    }
+
+    @Benchmark
+    public void objectTree(MutedOutput out) {
+        objectTree.operation();
+    }
+
+    @Benchmark
+    public void flatTree(MutedOutput out) {
+        flatTree.operation();
+    }
+
+    @Benchmark
+    public long objectTreeStream() {
+        return objectTree.stream().count();
+    }
+
+    @Benchmark
+    public long flatTreeStream() {
+        return flatTree.stream().count();
+    }
+}
@@ -0,0 +1,98 @@
+package basepatterns.structural.composite;
+
+import basepatterns.bench.MutedOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время «старта» дерева: сборка объектного дерева вызовами {@code add}
+ * против открытия того же дерева из файла через {@link MappedTree}.
+ * <br>
+ * <br>При 9 млн листьев и ветвлении 10 в дереве около 10^7 узлов. Файл пишется
+ * в {@link #setUp()} потоково, без дерева в куче; {@link #writeStreaming()} измеряет саму запись.
+ * Файл после записи лежит в страничном кеше, поэтому {@link #open()} показывает
+ * стоимость отображения без чтения с диска.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MappedTreeBenchmark {
+
+    @Param({"9000000"})
+    int leaves;
+
+    Path file;
+    Path scratch;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("composite", ".tree");
+        scratch = Files.createTempFile("composite", ".tree");
+        try (TreeFileWriter writer = new TreeFileWriter(file)) {
+            writeBalanced(writer, leaves, 10);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(scratch);
+    }
+
+    @Benchmark
+    public Component rebuild() {
+        return CompositeTraversalBenchmark.balanced(leaves, 10);
+    }
+
+    @Benchmark
+    public int open() {
+        return MappedTree.open(file).root().getChildCount();
+    }
+
+    @Benchmark
+    public void openAndTraverse(MutedOutput out) {
+        MappedTree.open(file).root().operation();
+    }
+
+    @Benchmark
+    public long writeStreaming() {
+        try (TreeFileWriter writer = new TreeFileWriter(scratch)) {
+            writeBalanced(writer, leaves, 10);
+            return writer.getNodeCount();
+        }
+    }
+
+    // Та же форма, что у CompositeTraversalBenchmark.balanced, но сразу в файл
+    static void writeBalanced(TreeFileWriter writer, int leaves, int fanout) {
+        writer.beginComposite("c" + leaves);
+        if (leaves <= fanout) {
+            for (int i = 0; i < leaves; i++) {
+                writer.leaf("l" + i);
+            }
+        } else {
+            int perChild = (leaves + fanout - 1) / fanout;
+            for (int left = leaves; left > 0; left -= perChild) {
+                writeBalanced(writer, Math.min(perChild, left), fanout);
+            }
+        }
+        writer.endComposite();
+    }
+}
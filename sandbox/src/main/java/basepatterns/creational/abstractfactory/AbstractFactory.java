@@ -1,5 +1,8 @@
 package basepatterns.creational.abstractfactory;
 
+import basepatterns.metrics.CreationMetrics;
+import basepatterns.output.Console;
+
 /**
  * <h3>Абстрактная фабрика</h3>
  * <br>
@@ -56,6 +59,19 @@ public class AbstractFactory {
         fordSuv.description();
         Pickup fordPickup = fordFactory.createPickup();
         fordPickup.description();
+
+        // Фабрика по имени семейства из реестра, сгенерированного при компиляции
+        for (String family : CarsFactories.families()) {
+            CarsFactories.get(family).createSuv().description();
+        }
+
+        // Фабрика под декоратором с метриками создания
+        CreationMetrics metrics = new CreationMetrics("cars");
+        CarsFactory meteredFord = new MeteredCarsFactory(fordFactory, metrics);
+        meteredFord.createSuv();
+        meteredFord.createPickup();
+        meteredFord.createPickup();
+        metrics.getSnapshots().forEach((type, snapshot) -> System.out.println(type + ": " + snapshot));
     }
 }
 
@@ -70,28 +86,28 @@ interface Suv {
 class FordPickup implements Pickup {
     @Override
     public void description() {
-        System.out.println("Ford Pickup");
+        Console.println("Ford Pickup");
     }
 }
 
 class FordSuv implements Suv {
     @Override
     public void description() {
-        System.out.println("Ford Suv");
+        Console.println("Ford Suv");
     }
 }
 
 class DodgePickup implements Pickup {
     @Override
     public void description() {
-        System.out.println("Dodge Pickup");
+        Console.println("Dodge Pickup");
     }
 }
 
 class DodgeSuv implements Suv {
     @Override
     public void description() {
-        System.out.println("Dodge Suv");
+        Console.println("Dodge Suv");
     }
 }
 
@@ -100,6 +116,7 @@ interface CarsFactory {
     Pickup createPickup();
 }
 
+@CarsFamily("ford")
 class FordFactory implements CarsFactory {
     @Override
     public Suv createSuv() {
@@ -112,6 +129,7 @@ class FordFactory implements CarsFactory {
     }
 }
 
+@CarsFamily("dodge")
 class DodgeFactory implements CarsFactory {
     @Override
     public Suv createSuv() {
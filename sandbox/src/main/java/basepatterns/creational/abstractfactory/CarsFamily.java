@@ -0,0 +1,19 @@
+package basepatterns.creational.abstractfactory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает реализацию {@link CarsFactory} как фабрику семейства с заданным именем.
+ * <br>
+ * <br>По этим аннотациям при компиляции генерируется класс {@code CarsFactories}
+ * с поиском фабрики по имени семейства без рефлексии и сканирования classpath
+ * (см. {@code CarsFamilyProcessor} в {@code src/processor}).
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+@interface CarsFamily {
+    String value();
+}
@@ -0,0 +1,34 @@
+package basepatterns.creational.abstractfactory;
+
+import basepatterns.metrics.CreationMetrics;
+
+/**
+ * Декоратор {@link CarsFactory}, который записывает в {@link CreationMetrics}
+ * каждый созданный автомобиль и время его создания (выборочно, если так настроены метрики).
+ */
+class MeteredCarsFactory implements CarsFactory {
+
+    private final CarsFactory delegate;
+    private final CreationMetrics metrics;
+
+    public MeteredCarsFactory(CarsFactory delegate, CreationMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Suv createSuv() {
+        long start = metrics.start();
+        Suv suv = delegate.createSuv();
+        metrics.stop(suv.getClass(), start);
+        return suv;
+    }
+
+    @Override
+    public Pickup createPickup() {
+        long start = metrics.start();
+        Pickup pickup = delegate.createPickup();
+        metrics.stop(pickup.getClass(), start);
+        return pickup;
+    }
+}
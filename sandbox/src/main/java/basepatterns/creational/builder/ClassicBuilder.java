@@ -29,6 +29,14 @@ public class ClassicBuilder {
         // Строим офисный компьютер
         Computer officeComputer = director.buildOfficeComputer();
         System.out.println("Office Computer: " + officeComputer);
+
+        // Строим миллион компьютеров в колоночное хранилище
+        ComputerColumns columns = new ComputerColumns();
+        director.buildGamingComputers(250_000, columns);
+        director.buildOfficeComputers(750_000, columns);
+        System.out.println("Computers built: " + columns.size()
+                + ", with integrated graphics: " + columns.count(ComputerColumns.Column.GPU, "Integrated Graphics"));
+        System.out.println("Computer #0: " + columns.get(0));
     }
 }
 
@@ -38,6 +46,22 @@ class Computer {
     private String storage;
     private String GPU;
 
+    public String getCPU() {
+        return CPU;
+    }
+
+    public String getRAM() {
+        return RAM;
+    }
+
+    public String getStorage() {
+        return storage;
+    }
+
+    public String getGPU() {
+        return GPU;
+    }
+
     public void setCPU(String CPU) {
         this.CPU = CPU;
     }
@@ -145,16 +169,25 @@ class OfficeComputerBuilder implements ComputerBuilder {
 // Директор, который управляет процессом строительства
 class ComputerDirector {
     public Computer buildGamingComputer() {
-        ComputerBuilder builder = new GamingComputerBuilder();
-        builder.buildCPU();
-        builder.buildRAM();
-        builder.buildStorage();
-        builder.buildGPU();
-        return builder.getComputer();
+        return construct(new GamingComputerBuilder());
     }
 
     public Computer buildOfficeComputer() {
-        ComputerBuilder builder = new OfficeComputerBuilder();
+        return construct(new OfficeComputerBuilder());
+    }
+
+    // Пакетная сборка: конфигурация строится один раз и добавляется в колонки count раз
+    public ComputerColumns buildGamingComputers(int count, ComputerColumns target) {
+        target.addCopies(buildGamingComputer(), count);
+        return target;
+    }
+
+    public ComputerColumns buildOfficeComputers(int count, ComputerColumns target) {
+        target.addCopies(buildOfficeComputer(), count);
+        return target;
+    }
+
+    private Computer construct(ComputerBuilder builder) {
         builder.buildCPU();
         builder.buildRAM();
         builder.buildStorage();
@@ -0,0 +1,154 @@
+package basepatterns.creational.builder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Колоночное хранилище конфигураций {@link Computer}.
+ * <br>
+ * <br>Каждый компонент (CPU, RAM, storage, GPU) хранится отдельной колонкой {@code int}-кодов,
+ * а строки лежат один раз в словаре колонки. Миллион одинаковых или похожих конфигураций
+ * занимает четыре массива {@code int}, а поиск по значению сводится к сравнению чисел.
+ * <br>
+ * <br>Объект {@link Computer} создается только по запросу через {@link #get(int)}.
+ */
+class ComputerColumns {
+
+    enum Column {
+        CPU, RAM, STORAGE, GPU
+    }
+
+    private static final int ABSENT = -1;
+
+    private final Dictionary[] dictionaries = new Dictionary[Column.values().length];
+    private final int[][] codes = new int[Column.values().length][];
+    private int size;
+
+    public ComputerColumns() {
+        this(16);
+    }
+
+    public ComputerColumns(int capacity) {
+        capacity = Math.max(capacity, 1);
+        for (int c = 0; c < codes.length; c++) {
+            dictionaries[c] = new Dictionary();
+            codes[c] = new int[capacity];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int add(String cpu, String ram, String storage, String gpu) {
+        return addCopies(cpu, ram, storage, gpu, 1);
+    }
+
+    // Добавляет count одинаковых конфигураций, возвращает индекс первой
+    public int addCopies(String cpu, String ram, String storage, String gpu, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        ensureCapacity(size + count);
+        int from = size;
+        int to = size + count;
+        fill(Column.CPU, cpu, from, to);
+        fill(Column.RAM, ram, from, to);
+        fill(Column.STORAGE, storage, from, to);
+        fill(Column.GPU, gpu, from, to);
+        size = to;
+        return from;
+    }
+
+    public int addCopies(Computer computer, int count) {
+        return addCopies(computer.getCPU(), computer.getRAM(), computer.getStorage(), computer.getGPU(), count);
+    }
+
+    public String value(Column column, int index) {
+        return dictionaries[column.ordinal()].value(code(column, index));
+    }
+
+    public int code(Column column, int index) {
+        checkIndex(index);
+        return codes[column.ordinal()][index];
+    }
+
+    // Код значения в словаре колонки либо -1, если такого значения нет
+    public int codeOf(Column column, String value) {
+        return dictionaries[column.ordinal()].codeOf(value);
+    }
+
+    public int count(Column column, String value) {
+        int code = codeOf(column, value);
+        if (code == ABSENT) {
+            return 0;
+        }
+        int[] columnCodes = codes[column.ordinal()];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (columnCodes[i] == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Computer get(int index) {
+        checkIndex(index);
+        Computer computer = new Computer();
+        computer.setCPU(value(Column.CPU, index));
+        computer.setRAM(value(Column.RAM, index));
+        computer.setStorage(value(Column.STORAGE, index));
+        computer.setGPU(value(Column.GPU, index));
+        return computer;
+    }
+
+    private void fill(Column column, String value, int from, int to) {
+        Arrays.fill(codes[column.ordinal()], from, to, dictionaries[column.ordinal()].encode(value));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > codes[0].length) {
+            int newCapacity = Math.max(capacity, codes[0].length * 2);
+            for (int c = 0; c < codes.length; c++) {
+                codes[c] = Arrays.copyOf(codes[c], newCapacity);
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    // Словарь колонки: строка ↔ код; null тоже получает свой код
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[4];
+        private int size;
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+
+        int codeOf(String value) {
+            Integer code = codes.get(value);
+            return code == null ? ABSENT : code;
+        }
+
+        String value(int code) {
+            return values[code];
+        }
+    }
+}
@@ -40,49 +40,105 @@ public class FluentInterfaceBuilder {
                 .build();
 
         System.out.println(computer);
+
+        // Строитель можно переиспользовать: уже построенный объект не меняется
+        MyComputer.Builder builder = MyComputer.Builder.threadLocal()
+                .withCPU("Intel Core i5-12400")
+                .withRAM("16GB DDR4");
+        MyComputer office = builder.build();
+        MyComputer upgraded = builder.withRAM("32GB DDR4").build();
+        System.out.println(office);
+        System.out.println(upgraded);
     }
 }
 
-class MyComputer {
-    private String CPU;
-    private String RAM;
-    private String storage;
-    private String GPU;
+// Неизменяемый продукт: каждый build() создает новый объект, поэтому строитель можно использовать повторно
+final class MyComputer {
+    private final String CPU;
+    private final String RAM;
+    private final String storage;
+    private final String GPU;
 
     // Приватный конструктор
-    private MyComputer() {}
+    private MyComputer(Builder builder) {
+        this.CPU = builder.CPU;
+        this.RAM = builder.RAM;
+        this.storage = builder.storage;
+        this.GPU = builder.GPU;
+    }
+
+    public String getCPU() {
+        return CPU;
+    }
+
+    public String getRAM() {
+        return RAM;
+    }
+
+    public String getStorage() {
+        return storage;
+    }
 
-    // Геттеры...
+    public String getGPU() {
+        return GPU;
+    }
+
+    @Override
+    public String toString() {
+        return "MyComputer{" +
+                "CPU='" + CPU + '\'' +
+                ", RAM='" + RAM + '\'' +
+                ", storage='" + storage + '\'' +
+                ", GPU='" + GPU + '\'' +
+                '}';
+    }
 
     public static class Builder {
-        private MyComputer computer;
+        // Строитель для повторного использования в пределах потока
+        private static final ThreadLocal<Builder> THREAD_LOCAL = ThreadLocal.withInitial(Builder::new);
+
+        private String CPU;
+        private String RAM;
+        private String storage;
+        private String GPU;
 
-        public Builder() {
-            computer = new MyComputer();
+        public Builder() {}
+
+        // Очищенный строитель текущего потока; не передавайте его в другие потоки
+        public static Builder threadLocal() {
+            return THREAD_LOCAL.get().reset();
+        }
+
+        public Builder reset() {
+            CPU = null;
+            RAM = null;
+            storage = null;
+            GPU = null;
+            return this;
         }
 
         public Builder withCPU(String CPU) {
-            computer.CPU = CPU;
+            this.CPU = CPU;
             return this;
         }
 
         public Builder withRAM(String RAM) {
-            computer.RAM = RAM;
+            this.RAM = RAM;
             return this;
         }
 
         public Builder withStorage(String storage) {
-            computer.storage = storage;
+            this.storage = storage;
             return this;
         }
 
         public Builder withGPU(String GPU) {
-            computer.GPU = GPU;
+            this.GPU = GPU;
             return this;
         }
 
         public MyComputer build() {
-            return computer;
+            return new MyComputer(this);
         }
     }
 }
@@ -0,0 +1,118 @@
+package basepatterns.creational.factorymethod;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Пул сотрудников для фабричного метода с явным возвратом объектов.
+ * <br>
+ * <br><b>Как устроен:</b>
+ * <br>&emsp;- У каждого потока свой список свободных объектов до {@link #LOCAL_CAPACITY} штук;
+ * выдача и возврат в нем идут без синхронизации.
+ * <br>&emsp;- Переполненный список отдает половину объектов в общий стек одной пачкой,
+ * а пустой список забирает пачку оттуда. Так объекты, освобожденные одним потоком,
+ * достаются другим, а общий стек блокируется один раз на пачку, а не на объект.
+ * <br>&emsp;- Когда общий стек заполнен, лишние объекты просто отдаются сборщику мусора;
+ * когда пусто везде, новый объект создает фабрика.
+ * <br>
+ * <br>Возвращать можно только объекты, полученные из этого пула, и только один раз:
+ * повторный возврат приведет к выдаче одного объекта двум владельцам. При включенных assert'ах
+ * ({@code -ea}) возврат объекта, который уже лежит в списке потока или в общем стеке, бросает {@link AssertionError}.
+ */
+final class EmploeePool<E extends Emploee> {
+
+    static final int LOCAL_CAPACITY = 64;
+    private static final int BATCH = LOCAL_CAPACITY / 2;
+
+    private final Supplier<? extends E> factory;
+    private final ThreadLocal<FreeList> local = ThreadLocal.withInitial(FreeList::new);
+
+    // Общий стек переполнения; изменяется только под его монитором
+    private final Object[] shared;
+    // volatile, чтобы пустой стек можно было проверить без блокировки
+    private volatile int sharedSize;
+
+    public EmploeePool(Supplier<? extends E> factory, int sharedCapacity) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+        if (sharedCapacity < 0) {
+            throw new IllegalArgumentException("Shared capacity must not be negative: " + sharedCapacity);
+        }
+        this.shared = new Object[sharedCapacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    public E acquire() {
+        FreeList list = local.get();
+        if (list.size == 0 && refill(list) == 0) {
+            return factory.get();
+        }
+        E item = (E) list.items[--list.size];
+        list.items[list.size] = null;
+        return item;
+    }
+
+    public void release(E item) {
+        Objects.requireNonNull(item, "item");
+        FreeList list = local.get();
+        assert !isFree(list, item) : "Item has already been released: " + item;
+        if (list.size == LOCAL_CAPACITY) {
+            spill(list);
+        }
+        list.items[list.size++] = item;
+    }
+
+    // Число объектов в общем стеке
+    public int sharedSize() {
+        return sharedSize;
+    }
+
+    // Проверка для assert'а: линейный поиск по ссылке, поэтому только в отладке.
+    // Объект, уже отданный в список другого потока, не находится
+    private boolean isFree(FreeList list, E item) {
+        for (int i = 0; i < list.size; i++) {
+            if (list.items[i] == item) {
+                return true;
+            }
+        }
+        synchronized (shared) {
+            for (int i = 0; i < sharedSize; i++) {
+                if (shared[i] == item) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int refill(FreeList list) {
+        if (sharedSize == 0) {
+            return 0;
+        }
+        synchronized (shared) {
+            int count = Math.min(BATCH, sharedSize);
+            sharedSize -= count;
+            System.arraycopy(shared, sharedSize, list.items, 0, count);
+            Arrays.fill(shared, sharedSize, sharedSize + count, null);
+            list.size = count;
+            return count;
+        }
+    }
+
+    // Переносит верхнюю половину локального списка в общий стек; не поместившееся отдается сборщику
+    private void spill(FreeList list) {
+        int from = list.size - BATCH;
+        synchronized (shared) {
+            int count = Math.min(BATCH, shared.length - sharedSize);
+            System.arraycopy(list.items, from, shared, sharedSize, count);
+            sharedSize += count;
+        }
+        Arrays.fill(list.items, from, list.size, null);
+        list.size = from;
+    }
+
+    private static final class FreeList {
+        private final Object[] items = new Object[LOCAL_CAPACITY];
+        private int size;
+    }
+}
@@ -1,5 +1,12 @@
 package basepatterns.creational.factorymethod;
 
+import basepatterns.metrics.CreationMetrics;
+import basepatterns.output.Console;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
 /**
  * <h3>Фабричный метод</h3>
  * <br>
@@ -26,7 +33,7 @@ package basepatterns.creational.factorymethod;
  */
 public class FactoryMethod {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws JMException {
         Department itDepartment = new ItDepartment();
         Emploee programmer = itDepartment.createEmploee();
         programmer.doSomething();
@@ -34,6 +41,28 @@ public class FactoryMethod {
         Department salesDepartment = new SalesDepartment();
         Emploee salesManager = salesDepartment.createEmploee();
         salesManager.doSomething();
+
+        // Те же фабрики под декоратором с метриками создания: считается каждый сотрудник,
+        // время замеряется у одного из 16 в среднем
+        CreationMetrics metrics = new CreationMetrics("departments", 16);
+        ObjectName objectName = metrics.registerMBean();
+        Department meteredIt = new MeteredDepartment(itDepartment, metrics);
+        Department meteredSales = new MeteredDepartment(salesDepartment, metrics);
+        for (int i = 0; i < 1000; i++) {
+            meteredIt.createEmploee();
+            meteredSales.createEmploee();
+        }
+        metrics.getSnapshots().forEach((type, snapshot) -> System.out.println(type + ": " + snapshot));
+        // Те же данные через JMX, как их видит JConsole
+        System.out.println(objectName + " TotalCount="
+                + ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "TotalCount"));
+        metrics.unregisterMBean();
+
+        // Отдел с пулом: освобожденный сотрудник выдается повторно
+        PooledDepartment pooledIt = new PooledDepartment(itDepartment);
+        Emploee first = pooledIt.createEmploee();
+        pooledIt.release(first);
+        System.out.println("Reused: " + (pooledIt.createEmploee() == first));
     }
 }
 
@@ -43,13 +72,13 @@ interface Emploee {
 
 class Programmer implements Emploee {
     public void doSomething() {
-        System.out.println("Coding....");
+        Console.println("Coding....");
     }
 }
 
 class SalesManager implements Emploee {
     public void doSomething() {
-        System.out.println("Sale...");
+        Console.println("Sale...");
     }
 }
 
@@ -0,0 +1,26 @@
+package basepatterns.creational.factorymethod;
+
+import basepatterns.metrics.CreationMetrics;
+
+/**
+ * Декоратор {@link Department}, который записывает в {@link CreationMetrics}
+ * каждого созданного сотрудника и время его создания (выборочно, если так настроены метрики).
+ */
+class MeteredDepartment extends Department {
+
+    private final Department delegate;
+    private final CreationMetrics metrics;
+
+    public MeteredDepartment(Department delegate, CreationMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    Emploee createEmploee() {
+        long start = metrics.start();
+        Emploee emploee = delegate.createEmploee();
+        metrics.stop(emploee.getClass(), start);
+        return emploee;
+    }
+}
@@ -0,0 +1,42 @@
+package basepatterns.creational.factorymethod;
+
+/**
+ * Вариант фабричного метода, который выдает сотрудников из {@link EmploeePool}
+ * вместо создания нового объекта на каждый вызов.
+ * <br>Новых сотрудников по-прежнему создает обернутый {@link Department},
+ * а освободившихся нужно вернуть через {@link #release(Emploee)}.
+ * <br>Класс продукта запоминается при создании отдела по первому сотруднику, который сразу кладется в пул.
+ * Считается, что обернутый отдел всегда создает сотрудников одного класса; сотрудник другого класса
+ * при возврате отклоняется, чтобы отдел не выдал его потом как своего.
+ */
+class PooledDepartment extends Department {
+
+    public static final int DEFAULT_SHARED_CAPACITY = 1024;
+
+    private final EmploeePool<Emploee> pool;
+    private final Class<? extends Emploee> productType;
+
+    public PooledDepartment(Department delegate) {
+        this(delegate, DEFAULT_SHARED_CAPACITY);
+    }
+
+    public PooledDepartment(Department delegate, int sharedCapacity) {
+        this.pool = new EmploeePool<>(delegate::createEmploee, sharedCapacity);
+        Emploee first = delegate.createEmploee();
+        this.productType = first.getClass();
+        pool.release(first);
+    }
+
+    @Override
+    Emploee createEmploee() {
+        return pool.acquire();
+    }
+
+    // Возвращает сотрудника, полученного из этого отдела, для повторной выдачи
+    public void release(Emploee emploee) {
+        if (emploee.getClass() != productType) {
+            throw new IllegalArgumentException("Expected " + productType.getName() + ", got " + emploee.getClass().getName());
+        }
+        pool.release(emploee);
+    }
+}
@@ -0,0 +1,163 @@
+package basepatterns.creational.prototype;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Компактная карта {@code String → String} с открытой адресацией.
+ * <br>
+ * <br>Ключи и значения лежат вперемешку в одном массиве {@code table}: ключ в четной ячейке,
+ * значение в следующей за ним. Нет ни узлов-записей, ни упакованных хешей, как в {@code HashMap},
+ * поэтому карта из нескольких ключей занимает один объект и один небольшой массив.
+ * <br>
+ * <br>Ключи приводятся к единственному экземпляру через общий словарь {@link #KEYS},
+ * так что миллионы профилей с одинаковыми ключами хранят лишь ссылки на них.
+ * Словарь не очищается и рассчитан на небольшой набор имен настроек.
+ * <br>
+ * <br>Удаление ключей не поддерживается. Класс не потокобезопасен.
+ */
+final class CompactStringMap {
+
+    private static final ConcurrentMap<String, String> KEYS = new ConcurrentHashMap<>();
+    private static final Object[] EMPTY = {};
+    private static final int MIN_CAPACITY = 4;
+
+    // Пары ключ-значение; длина массива равна удвоенной емкости, емкость — степень двойки
+    private Object[] table;
+    private int size;
+
+    public CompactStringMap() {
+        this.table = EMPTY;
+    }
+
+    private CompactStringMap(CompactStringMap source) {
+        this.table = source.table.length == 0 ? EMPTY : source.table.clone();
+        this.size = source.size;
+    }
+
+    public CompactStringMap copy() {
+        return new CompactStringMap(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String get(String key) {
+        if (size == 0) {
+            return null;
+        }
+        int index = find(table, key);
+        return table[index] == null ? null : (String) table[index + 1];
+    }
+
+    public String put(String key, String value) {
+        Objects.requireNonNull(key, "key");
+        if (table.length == 0) {
+            table = new Object[MIN_CAPACITY * 2];
+        }
+        int index = find(table, key);
+        if (table[index] != null) {
+            String previous = (String) table[index + 1];
+            table[index + 1] = value;
+            return previous;
+        }
+        // Заполнение не выше 3/4 емкости
+        if ((size + 1) * 4 > (table.length / 2) * 3) {
+            resize();
+            index = find(table, key);
+        }
+        table[index] = intern(key);
+        table[index + 1] = value;
+        size++;
+        return null;
+    }
+
+    public void forEach(BiConsumer<String, String> action) {
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != null) {
+                action.accept((String) table[i], (String) table[i + 1]);
+            }
+        }
+    }
+
+    private static String intern(String key) {
+        String existing = KEYS.putIfAbsent(key, key);
+        return existing == null ? key : existing;
+    }
+
+    // Индекс ячейки ключа либо первой пустой ячейки, где он должен оказаться
+    private static int find(Object[] table, String key) {
+        int mask = table.length / 2 - 1;
+        int slot = spread(key.hashCode()) & mask;
+        while (true) {
+            Object candidate = table[slot * 2];
+            if (candidate == null || candidate == key || candidate.equals(key)) {
+                return slot * 2;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void resize() {
+        Object[] old = table;
+        Object[] resized = new Object[old.length * 2];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != null) {
+                int index = find(resized, (String) old[i]);
+                resized[index] = old[i];
+                resized[index + 1] = old[i + 1];
+            }
+        }
+        table = resized;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactStringMap other) || other.size != size) {
+            return false;
+        }
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != null && !Objects.equals(table[i + 1], other.get((String) table[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != null) {
+                hash += table[i].hashCode() ^ Objects.hashCode(table[i + 1]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(key).append('=').append(value);
+        });
+        return sb.append('}').toString();
+    }
+}
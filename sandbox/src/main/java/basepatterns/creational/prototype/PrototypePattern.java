@@ -1,8 +1,5 @@
 package basepatterns.creational.prototype;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * <h3>Прототип</h3>
  * <br><b>Прототип</b> — это порождающий паттерн проектирования, который позволяет копировать объекты,
@@ -49,31 +46,44 @@ public class PrototypePattern {
         System.out.println("\nAfter modification:");
         System.out.println("Original prototype: " + proto);
         System.out.println("Modified copy: " + copy);
+
+        // Реестр прототипов: пакетное копирование и возврат копий в пул
+        PrototypeRegistry registry = new PrototypeRegistry();
+        registry.register("default", proto, 16);
+        Prototype[] batch = new Prototype[3];
+        registry.copy("default", batch, 0, batch.length);
+        System.out.println("\nFrom registry: " + batch[0]);
+        registry.release("default", batch[0]);
     }
 }
 
 // Интерфейс прототипа
 interface Prototype {
     Prototype copy();
+
+    // Возвращает объект в состояние шаблона для повторного использования; false, если не поддерживается
+    default boolean resetTo(Prototype template) {
+        return false;
+    }
 }
 
 // Конкретный класс, реализующий прототип
 class ConcretPrototype implements Prototype {
     private String name;
     private int value;
-    private Map<String, String> preferences;
+    private CompactStringMap preferences;
+    // Карта preferences общая с другими копиями и копируется при первом изменении
+    private boolean preferencesShared;
 
     public ConcretPrototype(String name, int value) {
         this.name = name;
         this.value = value;
-        this.preferences = new HashMap<>();
+        this.preferences = new CompactStringMap();
     }
 
-    // Приватный конструктор для копирования
+    // Приватный конструктор для копирования: карта не копируется, а становится общей (copy-on-write)
     private ConcretPrototype(ConcretPrototype source) {
-        this.name = source.name;
-        this.value = source.value;
-        this.preferences = new HashMap<>(source.preferences);
+        copyFrom(source);
     }
 
     @Override
@@ -81,6 +91,23 @@ class ConcretPrototype implements Prototype {
         return new ConcretPrototype(this);
     }
 
+    @Override
+    public boolean resetTo(Prototype template) {
+        if (!(template instanceof ConcretPrototype source)) {
+            return false;
+        }
+        copyFrom(source);
+        return true;
+    }
+
+    private void copyFrom(ConcretPrototype source) {
+        this.name = source.name;
+        this.value = source.value;
+        this.preferences = source.preferences;
+        this.preferencesShared = true;
+        source.preferencesShared = true;
+    }
+
     public void setName(String name) {
         this.name = name;
     }
@@ -90,6 +117,10 @@ class ConcretPrototype implements Prototype {
     }
 
     public void addPreferences(String key, String value) {
+        if (preferencesShared) {
+            this.preferences = preferences.copy();
+            this.preferencesShared = false;
+        }
         this.preferences.put(key, value);
     }
 
@@ -0,0 +1,132 @@
+package basepatterns.creational.prototype;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Потокобезопасный реестр прототипов по имени.
+ * <br>
+ * <br>&emsp;- {@link #copy(String, Prototype[], int, int)} заполняет массив вызывающего
+ * копиями за один поиск шаблона.
+ * <br>&emsp;- {@link #template(String)} возвращает {@link Template}, через который можно копировать
+ * без поиска по имени при каждом вызове.
+ * <br>&emsp;- Если при регистрации задан размер пула, копии, возвращенные через {@link #release(String, Prototype)},
+ * приводятся к состоянию шаблона ({@link Prototype#resetTo(Prototype)}) и выдаются повторно.
+ * Возвращать копию можно только один раз: при включенных assert'ах ({@code -ea}) повторный возврат
+ * копии, которая уже лежит в пуле, бросает {@link AssertionError}.
+ * <br>
+ * <br>При регистрации сохраняется копия переданного объекта, поэтому дальнейшие изменения
+ * исходного объекта на реестр не влияют.
+ */
+class PrototypeRegistry {
+
+    private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+
+    public void register(String name, Prototype prototype) {
+        register(name, prototype, 0);
+    }
+
+    public void register(String name, Prototype prototype, int poolCapacity) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(prototype, "prototype");
+        if (poolCapacity < 0) {
+            throw new IllegalArgumentException("Pool capacity must not be negative: " + poolCapacity);
+        }
+        templates.put(name, new Template(prototype.copy(), poolCapacity));
+    }
+
+    public void unregister(String name) {
+        templates.remove(name);
+    }
+
+    public Template template(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new NoSuchElementException("No prototype registered as " + name);
+        }
+        return template;
+    }
+
+    public Prototype copy(String name) {
+        return template(name).copy();
+    }
+
+    public void copy(String name, Prototype[] target, int offset, int count) {
+        template(name).copy(target, offset, count);
+    }
+
+    public void release(String name, Prototype copy) {
+        Template template = templates.get(name);
+        if (template != null) {
+            template.release(copy);
+        }
+    }
+
+    // Зарегистрированный шаблон с необязательным пулом освобожденных копий
+    static final class Template {
+        private final Prototype prototype;
+        private final ArrayBlockingQueue<Prototype> pool;
+
+        private Template(Prototype prototype, int poolCapacity) {
+            this.prototype = prototype;
+            this.pool = poolCapacity > 0 ? new ArrayBlockingQueue<>(poolCapacity) : null;
+        }
+
+        public Prototype copy() {
+            if (pool != null) {
+                Prototype pooled = pool.poll();
+                if (pooled != null) {
+                    return pooled;
+                }
+            }
+            return prototype.copy();
+        }
+
+        public void copy(Prototype[] target, int offset, int count) {
+            Objects.checkFromIndexSize(offset, count, target.length);
+            int end = offset + count;
+            int i = offset;
+            int available = pool == null ? 0 : Math.min(count, pool.size());
+            if (available > 0) {
+                // drainTo забирает копии под одной блокировкой очереди, а не под одной на копию
+                List<Prototype> pooled = new ArrayList<>(available);
+                pool.drainTo(pooled, count);
+                for (Prototype copy : pooled) {
+                    target[i++] = copy;
+                }
+            }
+            while (i < end) {
+                target[i++] = prototype.copy();
+            }
+        }
+
+        // Копия, которую нельзя привести к состоянию шаблона, в пул не попадает
+        public void release(Prototype copy) {
+            if (pool != null && copy != null && copy != prototype) {
+                assert !isPooled(copy) : "Copy has already been released: " + copy;
+                if (copy.resetTo(prototype)) {
+                    pool.offer(copy);
+                }
+            }
+        }
+
+        public int pooled() {
+            return pool == null ? 0 : pool.size();
+        }
+
+        // Проверка для assert'а: линейный поиск по ссылке, поэтому только в отладке
+        private boolean isPooled(Prototype copy) {
+            for (Prototype pooled : pool) {
+                if (pooled == copy) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package basepatterns.creational.simplefactory;
+
+import basepatterns.metrics.CreationMetrics;
+
+/**
+ * Обертка над {@link ShapeFactory#getShape(ShapeType)}, которая записывает в {@link CreationMetrics}
+ * каждую созданную фигуру и время ее создания (выборочно, если так настроены метрики).
+ * <br>Сама {@link ShapeFactory} статическая, поэтому декоратор — отдельный объект с тем же методом.
+ */
+class MeteredShapeFactory {
+
+    private final CreationMetrics metrics;
+
+    public MeteredShapeFactory(CreationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public Shape getShape(ShapeType shapeType) {
+        long start = metrics.start();
+        Shape shape = ShapeFactory.getShape(shapeType);
+        metrics.stop(shape.getClass(), start);
+        return shape;
+    }
+}
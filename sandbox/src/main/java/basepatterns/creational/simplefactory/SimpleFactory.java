@@ -1,5 +1,13 @@
 package basepatterns.creational.simplefactory;
 
+import basepatterns.metrics.CreationMetrics;
+import basepatterns.output.Console;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
 /**
  * <h3>Простая фабрика</h3>
  * <br>
@@ -31,6 +39,18 @@ public class SimpleFactory {
 
         Shape shape3 = ShapeFactory.getShape(ShapeType.TRIANGLE);
         shape3.draw();
+
+        // Общий экземпляр вместо нового объекта на каждый вызов
+        Shape shared = ShapeFactory.getSharedShape(ShapeType.CIRCLE);
+        shared.draw();
+
+        // Та же фабрика под оберткой с метриками создания
+        CreationMetrics metrics = new CreationMetrics("shapes");
+        MeteredShapeFactory meteredFactory = new MeteredShapeFactory(metrics);
+        for (ShapeType shapeType : ShapeType.values()) {
+            meteredFactory.getShape(shapeType).draw();
+        }
+        metrics.getSnapshots().forEach((type, snapshot) -> System.out.println(type + ": " + snapshot));
     }
 }
 
@@ -45,37 +65,91 @@ enum ShapeType {
 class Circle implements Shape {
     @Override
     public void draw() {
-        System.out.println("Drawing a Circle");
+        Console.println("Drawing a Circle");
     }
 }
 
 class Rectangle implements Shape {
     @Override
     public void draw() {
-        System.out.println("Drawing a Rectangle");
+        Console.println("Drawing a Rectangle");
     }
 }
 
 class Triangle implements Shape {
     @Override
     public void draw() {
-        System.out.println("Drawing a Triangle");
+        Console.println("Drawing a Triangle");
     }
 }
 
+// Фабрика на основе реестра "тип → поставщик"; реестр заменяется целиком при регистрации (copy-on-write)
 class ShapeFactory {
+    private static volatile Registry registry = new Registry(new EnumMap<>(ShapeType.class))
+            .with(ShapeType.CIRCLE, Circle::new)
+            .with(ShapeType.RECTANGLE, Rectangle::new)
+            .with(ShapeType.TRIANGLE, Triangle::new);
+
+    // Каждый вызов создает новый объект
     public static Shape getShape(ShapeType shapeType) {
-        switch (shapeType) {
-            case CIRCLE -> {
-                return new Circle();
-            }
-            case RECTANGLE -> {
-                return new Rectangle();
+        return registry.entry(shapeType).supplier.get();
+    }
+
+    // Общий экземпляр для типа; подходит только для фигур без состояния
+    public static Shape getSharedShape(ShapeType shapeType) {
+        return registry.entry(shapeType).shared();
+    }
+
+    public static synchronized void register(ShapeType shapeType, Supplier<? extends Shape> supplier) {
+        Objects.requireNonNull(shapeType, "shapeType");
+        Objects.requireNonNull(supplier, "supplier");
+        registry = registry.with(shapeType, supplier);
+    }
+
+    private static final class Registry {
+        private final Map<ShapeType, Entry> entries;
+
+        private Registry(Map<ShapeType, Entry> entries) {
+            this.entries = entries;
+        }
+
+        private Entry entry(ShapeType shapeType) {
+            Entry entry = entries.get(Objects.requireNonNull(shapeType, "shapeType"));
+            if (entry == null) {
+                throw new UnsupportedOperationException("No shape registered for " + shapeType);
             }
-            case TRIANGLE -> {
-                return new Triangle();
+            return entry;
+        }
+
+        // Записи остальных типов переходят в новый реестр вместе с уже созданными общими экземплярами
+        private Registry with(ShapeType shapeType, Supplier<? extends Shape> supplier) {
+            Map<ShapeType, Entry> copy = new EnumMap<>(entries);
+            copy.put(shapeType, new Entry(supplier));
+            return new Registry(copy);
+        }
+    }
+
+    // Поставщик типа и его общий экземпляр, который создается при первом запросе
+    private static final class Entry {
+        private final Supplier<? extends Shape> supplier;
+        private volatile Shape shared;
+
+        private Entry(Supplier<? extends Shape> supplier) {
+            this.supplier = supplier;
+        }
+
+        private Shape shared() {
+            Shape shape = shared;
+            if (shape == null) {
+                synchronized (this) {
+                    shape = shared;
+                    if (shape == null) {
+                        shape = supplier.get();
+                        shared = shape;
+                    }
+                }
             }
-            default -> throw new UnsupportedOperationException();
+            return shape;
         }
     }
 }
@@ -0,0 +1,15 @@
+package basepatterns.creational.singleton;
+
+/**
+ * Потокобезопасный вариант на основе перечисления.
+ * Защищен от повторного создания через сериализацию и рефлексию,
+ * экземпляр создается при инициализации класса
+ */
+public enum EnumSingleton {
+
+    INSTANCE;
+
+    public static EnumSingleton getInstance() {
+        return INSTANCE;
+    }
+}
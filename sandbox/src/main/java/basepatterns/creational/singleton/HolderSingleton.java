@@ -0,0 +1,19 @@
+package basepatterns.creational.singleton;
+
+public class HolderSingleton {
+
+    private HolderSingleton() {}
+
+    private static class Holder {
+        private static final HolderSingleton INSTANCE = new HolderSingleton();
+    }
+
+    /**
+     * Потокобезопасный ленивый вариант (Initialization-on-demand holder).
+     * Экземпляр создается при первом обращении к классу {@code Holder},
+     * синхронизацию обеспечивает загрузчик классов, поэтому чтение идет без блокировок
+     */
+    public static HolderSingleton getInstance() {
+        return Holder.INSTANCE;
+    }
+}
@@ -0,0 +1,133 @@
+package basepatterns.creational.singleton;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * <h3>Пул одиночек (Multiton)</h3>
+ * <br>Реестр ленивых одиночек по ключу: для каждого ключа (арендатора, региона)
+ * экземпляр создается фабрикой один раз, при первом запросе.
+ * <br>
+ * <br><b>Как устроен:</b>
+ * <br>&emsp;- Ключу соответствует ячейка {@link Holder} в {@link ConcurrentHashMap}. Ячейка создается
+ * без вызова фабрики, поэтому блокировка корзины карты держится лишь на время вставки.
+ * <br>&emsp;- Значение создается под монитором своей ячейки с двойной проверкой, как в {@link ClassicSingleton}.
+ * Создание для одного ключа не задерживает другие ключи, а готовое значение читается без блокировок.
+ * <br>&emsp;- Если фабрика бросила исключение, ячейка помечается мертвой и убирается из карты,
+ * а следующий запрос повторит создание в новой ячейке.
+ * <br>&emsp;- Удаление помечает ячейку мертвой под тем же монитором и только потом убирает ее из карты.
+ * Запрос, заставший мертвую ячейку, не берет из нее значение, а идет за новой ячейкой в карту. Поэтому
+ * удаленный экземпляр не выдается после удаления, а значение, создание которого уже началось,
+ * не может оказаться в отсоединенной ячейке рядом со вторым экземпляром.
+ * <br>
+ * <br><b>Вытеснение неиспользуемых ключей</b> необязательно: {@link #evictIdle()} работает
+ * по принципу «второго шанса». Запрос помечает ячейку, а вызов {@code evictIdle()} снимает метки
+ * и удаляет ячейки, к которым не обращались с прошлого вызова. Если вызывать его раз в T,
+ * ключ живет без обращений от T до 2T. После вытеснения следующий запрос создаст новый экземпляр.
+ */
+public class Multiton<K, V> {
+
+    private final ConcurrentMap<K, Holder<V>> holders = new ConcurrentHashMap<>();
+    private final Function<? super K, ? extends V> factory;
+
+    public Multiton(Function<? super K, ? extends V> factory) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+    }
+
+    public V get(K key) {
+        while (true) {
+            Holder<V> holder = holders.get(key);
+            if (holder == null) {
+                holder = holders.computeIfAbsent(key, k -> new Holder<>());
+            }
+            // Запись только при смене метки, чтобы частые чтения не делили строку кеша на запись
+            if (!holder.accessed) {
+                holder.accessed = true;
+            }
+            V value = holder.value;
+            if (value != null && !holder.dead) {
+                return value;
+            }
+            synchronized (holder) {
+                // Ячейку удалили, пока мы до нее добирались: в карте уже другая или никакой
+                if (holder.dead) {
+                    holders.remove(key, holder);
+                    continue;
+                }
+                value = holder.value;
+                if (value == null) {
+                    try {
+                        value = Objects.requireNonNull(factory.apply(key), "Factory returned null");
+                    } catch (Throwable e) {
+                        // Ячейка без значения не должна остаться в карте: ее не уберут ни remove, ни evictIdle
+                        holder.dead = true;
+                        holders.remove(key, holder);
+                        throw e;
+                    }
+                    holder.value = value;
+                }
+                return value;
+            }
+        }
+    }
+
+    // Значение, если оно уже создано; не создает его и не продлевает жизнь ключа
+    public V getIfPresent(K key) {
+        Holder<V> holder = holders.get(key);
+        return holder == null || holder.dead ? null : holder.value;
+    }
+
+    /**
+     * Удаляет ключ, если его значение уже создано. Ключ, значение которого еще создается
+     * или не было создано, не удаляется, и вызов не ждет фабрику.
+     */
+    public boolean remove(K key) {
+        Holder<V> holder = holders.get(key);
+        return holder != null && holder.value != null && detach(key, holder, false);
+    }
+
+    /**
+     * Удаляет ключи, к которым не обращались с прошлого вызова. Ячейки, значение которых
+     * еще создается, не трогает. Возвращает число удаленных ключей.
+     * <br>Метка перепроверяется под монитором ячейки перед удалением. Запрос, пришедший одновременно
+     * с удалением, может получить прежний экземпляр, но второй экземпляр при живом первом не создается.
+     */
+    public int evictIdle() {
+        int evicted = 0;
+        for (var entry : holders.entrySet()) {
+            Holder<V> holder = entry.getValue();
+            if (holder.accessed) {
+                holder.accessed = false;
+            } else if (holder.value != null && detach(entry.getKey(), holder, true)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return holders.size();
+    }
+
+    // Помечает ячейку со значением мертвой и убирает ее из карты; idleOnly — только если к ней не обращались
+    private boolean detach(K key, Holder<V> holder, boolean idleOnly) {
+        synchronized (holder) {
+            if (holder.dead || holder.value == null || idleOnly && holder.accessed) {
+                return false;
+            }
+            holder.dead = true;
+        }
+        holders.remove(key, holder);
+        return true;
+    }
+
+    // Ячейка ключа; ее монитор — блокировка создания значения и удаления
+    private static final class Holder<V> {
+        volatile V value;
+        volatile boolean accessed = true;
+        // Устанавливается только под монитором
+        volatile boolean dead;
+    }
+}
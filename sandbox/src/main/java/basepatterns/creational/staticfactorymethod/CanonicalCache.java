@@ -0,0 +1,121 @@
+package basepatterns.creational.staticfactorymethod;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Ограниченный потокобезопасный кеш канонических экземпляров.
+ * <br>
+ * <br>Вытеснение — алгоритм CLOCK («второй шанс»), приближение LRU:
+ * <br>&emsp;- Попадание — это чтение из {@link ConcurrentHashMap} без блокировок. Запись в память
+ * бывает только при установке флага обращения, если он еще снят.
+ * <br>&emsp;- Записи стоят в очереди в порядке добавления. При переполнении вытесняющий поток
+ * берет запись из головы очереди: если к ней обращались, снимает флаг и ставит ее в хвост,
+ * иначе удаляет из кеша. Вытеснение идет под отдельной блокировкой и только при промахах.
+ * <br>&emsp;- Новая запись начинается без флага, поэтому ключи, запрошенные один раз,
+ * вытесняются раньше часто используемых.
+ * <br>
+ * <br>Попадания, промахи и вытеснения считаются в {@link LongAdder}.
+ */
+final class CanonicalCache<K, V> {
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry<K, V>> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CanonicalCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    // Канонический экземпляр для ключа; при промахе создается фабрикой
+    public V get(K key, Function<? super K, ? extends V> factory) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        V value = factory.apply(key);
+        if (maximumSize == 0) {
+            return value;
+        }
+        // Если ключ параллельно добавил другой поток, канонический — его экземпляр
+        Entry<K, V> created = new Entry<>(key, value);
+        Entry<K, V> existing = entries.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.value;
+        }
+        clock.offer(created);
+        if (size.incrementAndGet() > maximumSize) {
+            evict();
+        }
+        return value;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    private void evict() {
+        evictionLock.lock();
+        try {
+            while (size.get() > maximumSize) {
+                Entry<K, V> candidate = clock.poll();
+                if (candidate == null) {
+                    return;
+                }
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                    clock.offer(candidate);
+                } else if (entries.remove(candidate.key, candidate)) {
+                    size.decrementAndGet();
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        volatile boolean referenced;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
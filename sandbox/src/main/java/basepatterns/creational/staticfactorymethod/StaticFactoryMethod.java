@@ -23,18 +23,69 @@ package basepatterns.creational.staticfactorymethod;
  */
 public class StaticFactoryMethod {
 
-    private String data;
+    // Размер кеша строк по умолчанию; задается свойством basepatterns.staticfactorymethod.cache.size
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private static volatile CanonicalCache<String, StaticFactoryMethod> cache =
+            new CanonicalCache<>(Integer.getInteger("basepatterns.staticfactorymethod.cache.size", DEFAULT_CACHE_SIZE));
+
+    private final String data;
 
     private StaticFactoryMethod(String data) {
         this.data = data;
     }
 
+    // Экземпляры неизменяемы, поэтому для одинаковых строк возвращается один и тот же объект из кеша
     public static StaticFactoryMethod createFromString(String data) {
-        return new StaticFactoryMethod(data);
+        if (data == null) {
+            return new StaticFactoryMethod(null);
+        }
+        return cache.get(data, StaticFactoryMethod::new);
     }
 
+    // Как Integer.valueOf: небольшие числа берутся из заранее созданного массива без String.valueOf
     public static StaticFactoryMethod createFromInteger(int number) {
-        return new StaticFactoryMethod(String.valueOf(number));
+        if (number >= SmallIntegers.LOW && number <= SmallIntegers.HIGH) {
+            return SmallIntegers.INSTANCES[number - SmallIntegers.LOW];
+        }
+        return createFromString(String.valueOf(number));
+    }
+
+    /**
+     * Заменяет кеш строк новым с заданным размером; 0 отключает кеширование.
+     * Счетчики попаданий и промахов начинаются заново.
+     */
+    public static void configureCache(int maximumSize) {
+        cache = new CanonicalCache<>(maximumSize);
+    }
+
+    public static long getCacheHits() {
+        return cache.hits();
+    }
+
+    public static long getCacheMisses() {
+        return cache.misses();
+    }
+
+    public static int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Заранее созданные экземпляры для чисел от -128 до {@code HIGH}. Верхняя граница
+     * задается свойством basepatterns.staticfactorymethod.integers.high (не меньше 127).
+     * Массив создается при первом вызове {@link #createFromInteger(int)}.
+     */
+    private static final class SmallIntegers {
+        static final int LOW = -128;
+        static final int HIGH = Math.max(127, Integer.getInteger("basepatterns.staticfactorymethod.integers.high", 1023));
+        static final StaticFactoryMethod[] INSTANCES = new StaticFactoryMethod[HIGH - LOW + 1];
+
+        static {
+            for (int i = 0; i < INSTANCES.length; i++) {
+                INSTANCES[i] = new StaticFactoryMethod(String.valueOf(LOW + i));
+            }
+        }
     }
 
     public String getData() {
@@ -47,5 +98,10 @@ public class StaticFactoryMethod {
 
         System.out.println(obj1.getData());
         System.out.println(obj2.getData());
+
+        // Повторные вызовы возвращают те же экземпляры
+        System.out.println(StaticFactoryMethod.createFromString("test") == obj1);
+        System.out.println(StaticFactoryMethod.createFromInteger(123) == obj2);
+        System.out.println("Cache hits: " + getCacheHits() + ", misses: " + getCacheMisses());
     }
 }
@@ -0,0 +1,239 @@
+package basepatterns.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ConstructorParameters;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Метрики создания объектов фабриками: число созданных продуктов и гистограмма
+ * времени создания отдельно для каждого класса продукта.
+ * <br>
+ * <br>Запись задумана так, чтобы ее можно было не выключать в работе:
+ * <br>&emsp;- счетчики — {@link LongAdder}, гистограмма — {@link LatencyHistogram} с полосами по потокам;
+ * <br>&emsp;- {@link #record(Class, long)} не выделяет памяти: метрики типа ищутся в {@link ConcurrentHashMap}
+ * и создаются только при первом продукте этого класса.
+ * <br>
+ * <br>&emsp;- Замер можно делать выборочно: при интервале выборки N время замеряется в среднем
+ * у одного создания из N, а считается каждое. Решение принимает {@link ThreadLocalRandom},
+ * без общего счетчика, поэтому периодичность нагрузки не смещает выборку. Большую часть
+ * стоимости записи составляют два вызова {@link System#nanoTime()} и гистограмма, и на
+ * невыбранных вызовах остается только счетчик.
+ * <br>
+ * <br>Фабрики оборачиваются декораторами: декоратор берет {@link #start()} перед вызовом фабрики и
+ * передает класс продукта и это значение в {@link #stop(Class, long)}. {@link #registerMBean()}
+ * публикует снимки через JMX под именем {@code basepatterns.metrics:type=CreationMetrics,name=<name>}.
+ */
+public final class CreationMetrics implements CreationMetricsMXBean {
+
+    // Значение start() для вызова, время которого не замеряется
+    private static final long UNTIMED = Long.MIN_VALUE;
+
+    private final String name;
+    private final int sampleMask;
+    private final ConcurrentMap<Class<?>, TypeMetrics> types = new ConcurrentHashMap<>();
+    private ObjectName objectName;
+
+    public CreationMetrics(String name) {
+        this(name, 1);
+    }
+
+    /**
+     * Метрики, замеряющие время в среднем у одного создания из {@code sampleInterval}.
+     * Интервал — степень двойки; 1 — замер каждого создания.
+     */
+    public CreationMetrics(String name, int sampleInterval) {
+        this.name = Objects.requireNonNull(name, "name");
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("Sample interval must be a positive power of two: " + sampleInterval);
+        }
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    // Начало замера для stop(); для невыбранного вызова часы не читаются
+    public long start() {
+        if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return UNTIMED;
+        }
+        return System.nanoTime();
+    }
+
+    // Считает продукт и, если вызов выбран в start(), записывает время его создания
+    public void stop(Class<?> productType, long start) {
+        if (start == UNTIMED) {
+            metrics(productType).count.increment();
+        } else {
+            record(productType, System.nanoTime() - start);
+        }
+    }
+
+    // Считает продукт с уже измеренным временем создания, независимо от выборки
+    public void record(Class<?> productType, long nanos) {
+        TypeMetrics metrics = metrics(productType);
+        metrics.count.increment();
+        metrics.timed.increment();
+        metrics.totalNanos.add(nanos);
+        metrics.latency.record(nanos);
+    }
+
+    @Override
+    public int getSampleInterval() {
+        return sampleMask + 1;
+    }
+
+    // Снимок для класса продукта или null, если таких продуктов еще не было
+    public Snapshot snapshot(Class<?> productType) {
+        TypeMetrics metrics = types.get(productType);
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getTotalCount() {
+        long total = 0;
+        for (TypeMetrics metrics : types.values()) {
+            total += metrics.count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Snapshot> getSnapshots() {
+        Map<String, Snapshot> snapshots = new TreeMap<>();
+        types.forEach((type, metrics) -> snapshots.put(type.getName(), metrics.snapshot()));
+        return snapshots;
+    }
+
+    private TypeMetrics metrics(Class<?> productType) {
+        TypeMetrics metrics = types.get(productType);
+        if (metrics == null) {
+            metrics = types.computeIfAbsent(productType, type -> new TypeMetrics());
+        }
+        return metrics;
+    }
+
+    // Регистрирует метрики в платформенном MBeanServer; возвращает имя, под которым они видны
+    public synchronized ObjectName registerMBean() {
+        if (objectName != null) {
+            return objectName;
+        }
+        try {
+            ObjectName candidate = new ObjectName("basepatterns.metrics:type=CreationMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+            objectName = candidate;
+            return candidate;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics " + name, e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister metrics " + name, e);
+        }
+    }
+
+    private static final class TypeMetrics {
+        private final LongAdder count = new LongAdder();
+        // Число созданий с замеренным временем; по ним считаются среднее и процентили
+        private final LongAdder timed = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private Snapshot snapshot() {
+            long sampled = timed.sum();
+            long[] counts = latency.counts();
+            return new Snapshot(count.sum(), sampled,
+                    sampled == 0 ? 0 : totalNanos.sum() / sampled,
+                    LatencyHistogram.valueAtPercentile(counts, 50),
+                    LatencyHistogram.valueAtPercentile(counts, 90),
+                    LatencyHistogram.valueAtPercentile(counts, 99),
+                    LatencyHistogram.valueAtPercentile(counts, 99.9),
+                    LatencyHistogram.valueAtPercentile(counts, 100));
+        }
+    }
+
+    /**
+     * Неизменяемый снимок метрик одного класса продукта. {@code count} — все созданные продукты,
+     * {@code sampled} — те, у которых замерено время; среднее и процентили считаются по ним.
+     * Процентили — верхние границы корзин гистограммы, то есть завышены не более чем на 1/16.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long sampled;
+        private final long meanNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+        private final long maxNanos;
+
+        @ConstructorParameters({"count", "sampled", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "p999Nanos", "maxNanos"})
+        public Snapshot(long count, long sampled, long meanNanos, long p50Nanos, long p90Nanos,
+                        long p99Nanos, long p999Nanos, long maxNanos) {
+            this.count = count;
+            this.sampled = sampled;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSampled() {
+            return sampled;
+        }
+
+        public long getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getP999Nanos() {
+            return p999Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", sampled=" + sampled + ", mean=" + meanNanos + "ns, p50=" + p50Nanos + "ns, p90=" + p90Nanos
+                    + "ns, p99=" + p99Nanos + "ns, p99.9=" + p999Nanos + "ns, max=" + maxNanos + "ns";
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package basepatterns.metrics;
+
+import java.util.Map;
+
+/**
+ * Представление {@link CreationMetrics} в JMX. Снимки по типам продуктов видны
+ * в JConsole/VisualVM как таблица с ключом — полным именем класса продукта.
+ */
+public interface CreationMetricsMXBean {
+
+    String getName();
+
+    long getTotalCount();
+
+    int getSampleInterval();
+
+    Map<String, CreationMetrics.Snapshot> getSnapshots();
+}
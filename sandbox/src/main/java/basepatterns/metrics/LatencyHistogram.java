@@ -0,0 +1,99 @@
+package basepatterns.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасная гистограмма задержек в наносекундах с корзинами в стиле HdrHistogram.
+ * <br>
+ * <br>Каждая степень двойки делится на {@link #SUB_BUCKETS} равных корзин, поэтому
+ * относительная погрешность значения не превышает 1/16 во всем диапазоне {@code long},
+ * а число корзин постоянно ({@link #BUCKETS}). Номер корзины считается сдвигами, без ветвлений
+ * по таблице и без выделения памяти.
+ * <br>
+ * <br>Счетчики разбиты на полосы по потокам: поток увеличивает ячейку своей полосы,
+ * так что потоки реже конкурируют за одну строку кеша. Полосы суммируются при чтении.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+
+    public void record(long nanos) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.getAndIncrement(stripe * BUCKETS + bucket(Math.max(nanos, 0)));
+    }
+
+    // Сумма полос по корзинам; корзины читаются не атомарно все вместе
+    public long[] counts() {
+        long[] merged = new long[BUCKETS];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += counts.get(stripe * BUCKETS + i);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Наибольшее значение, попадающее в корзину заданного процентиля (0..100).
+     * Для пустой гистограммы возвращает 0.
+     */
+    public static long valueAtPercentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length - 1);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS | subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        if (bucket == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return lowerBound(bucket + 1) - 1;
+    }
+
+    private static int stripes(int processors) {
+        int stripes = 1;
+        while (stripes < processors && stripes < 8) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
@@ -0,0 +1,258 @@
+package basepatterns.output;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный получатель строк: потоки-производители кладут строки в кольцевой буфер без блокировок,
+ * единственный фоновый поток пачками кодирует их в UTF-8 и пишет в {@link WritableByteChannel}.
+ * <br>
+ * <br>Кольцевой буфер — ограниченная очередь "много производителей — один потребитель":
+ * у каждой ячейки есть номер последовательности, производитель занимает позицию через CAS по {@code tail}
+ * и публикует строку записью номера. Вызывающий поток не берет монитор {@code PrintStream}
+ * и не делает системный вызов на каждую строку.
+ * <br>
+ * <br>Если буфер заполнен, производитель ждет (спин, затем короткая парковка). Ожидание прерывается
+ * исключением, если получатель закрыт или фоновый поток остановился из-за ошибки.
+ * Строки пишутся в канал, когда заполнен байтовый буфер или очередь опустела.
+ * <br>
+ * <br>Закрытие не теряет строк: производитель после захвата позиции еще раз проверяет {@code closed}
+ * и при закрытом получателе публикует в ячейку пустую отметку вместо строки и бросает исключение.
+ * Фоновый поток завершается только после того, как прочитаны все захваченные позиции.
+ */
+public final class AsyncLineSink implements LineSink {
+
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final String[] lines;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    private final WritableByteChannel channel;
+    private final boolean ownsChannel;
+    private final ByteBuffer buffer;
+    private final Thread writer;
+
+    // Поля ниже меняет только фоновый поток
+    private long head;
+    private volatile long written;
+    private volatile Throwable failure;
+
+    private volatile boolean parked;
+    private volatile boolean closed;
+
+    public AsyncLineSink(WritableByteChannel channel, boolean ownsChannel) {
+        this(channel, ownsChannel, DEFAULT_CAPACITY, DEFAULT_BUFFER_SIZE);
+    }
+
+    public AsyncLineSink(WritableByteChannel channel, boolean ownsChannel, int capacity, int bufferSize) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.lines = new String[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.writer = new Thread(this::writeLoop, "async-line-sink");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Вывод в стандартный поток процесса; сам дескриптор при закрытии не закрывается
+    public static AsyncLineSink stdout() {
+        return new AsyncLineSink(Channels.newChannel(new FileOutputStream(FileDescriptor.out)), false);
+    }
+
+    @Override
+    public void println(String line) {
+        if (closed) {
+            throw new IllegalStateException("Sink is closed");
+        }
+        checkFailure();
+        String value = String.valueOf(line);
+        int spins = 0;
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    // Закрытие могло прийти после первой проверки: фоновый поток ждет эту позицию,
+                    // поэтому ее нужно опубликовать, но без строки
+                    boolean rejected = closed;
+                    lines[index] = rejected ? null : value;
+                    sequences.set(index, position + 1);
+                    if (rejected) {
+                        throw new IllegalStateException("Sink is closed");
+                    }
+                    break;
+                }
+            } else if (sequence < position) {
+                // Буфер заполнен: ждем фоновый поток, если он еще может освободить место
+                checkFailure();
+                if (closed) {
+                    throw new IllegalStateException("Sink is closed");
+                }
+                if (!writer.isAlive()) {
+                    throw new IllegalStateException("Writer thread has stopped");
+                }
+                backOff(spins++);
+            }
+        }
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (written < target) {
+            checkFailure();
+            if (!writer.isAlive()) {
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, 50_000);
+        }
+        checkFailure();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (ownsChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        checkFailure();
+    }
+
+    private static void backOff(int spins) {
+        if (spins < 100) {
+            Thread.onSpinWait();
+        } else if (spins < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(10_000);
+        }
+    }
+
+    private void checkFailure() {
+        Throwable e = failure;
+        if (e instanceof IOException io) {
+            throw new UncheckedIOException("Async output failed", io);
+        }
+        if (e != null) {
+            throw new IllegalStateException("Async output failed", e);
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                if (drain() > 0) {
+                    continue;
+                }
+                writeBuffer();
+                if (closed && tail.get() == head) {
+                    return;
+                }
+                parked = true;
+                if (!hasPublished()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+            }
+        } catch (Throwable e) {
+            // Любая ошибка должна стать видна производителям, иначе они ждали бы место в буфере вечно
+            failure = e;
+        }
+    }
+
+    private boolean hasPublished() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    private int drain() throws IOException {
+        int drained = 0;
+        while (hasPublished()) {
+            int index = (int) (head & mask);
+            String line = lines[index];
+            lines[index] = null;
+            sequences.set(index, head + lines.length);
+            // null — отметка позиции, от которой производитель отказался при закрытии
+            if (line != null) {
+                encode(line);
+            }
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    private void encode(String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length + LINE_SEPARATOR.length > buffer.remaining()) {
+            writeBuffer();
+        }
+        if (bytes.length + LINE_SEPARATOR.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+            writeFully(ByteBuffer.wrap(LINE_SEPARATOR));
+            return;
+        }
+        buffer.put(bytes).put(LINE_SEPARATOR);
+    }
+
+    // Записывает накопленное; все строки до head к этому моменту уже в буфере
+    private void writeBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+        written = head;
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package basepatterns.output;
+
+import java.util.Objects;
+
+/**
+ * Общая точка вывода для всех паттернов.
+ * <br>
+ * <br>По умолчанию строки печатаются прямо в {@code System.out}, как раньше.
+ * Для многопоточной нагрузки можно установить {@link AsyncLineSink}:
+ * <pre>{@code
+ * try (AsyncLineSink sink = AsyncLineSink.stdout()) {
+ *     LineSink previous = Console.setSink(sink);
+ *     ...
+ *     Console.setSink(previous);
+ * }
+ * }</pre>
+ */
+public final class Console {
+
+    private static volatile LineSink sink = LineSink.systemOut();
+
+    private Console() {}
+
+    public static void println(String line) {
+        sink.println(line);
+    }
+
+    public static void flush() {
+        sink.flush();
+    }
+
+    // Возвращает предыдущий получатель
+    public static LineSink setSink(LineSink newSink) {
+        LineSink previous = sink;
+        sink = Objects.requireNonNull(newSink, "sink");
+        return previous;
+    }
+
+    public static LineSink getSink() {
+        return sink;
+    }
+}
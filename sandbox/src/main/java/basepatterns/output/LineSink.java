@@ -0,0 +1,34 @@
+package basepatterns.output;
+
+/**
+ * Получатель строк вывода, через который печатают классы паттернов (см. {@link Console}).
+ */
+@FunctionalInterface
+public interface LineSink extends AutoCloseable {
+
+    void println(String line);
+
+    // Дожидается, пока все ранее переданные строки будут записаны
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+        flush();
+    }
+
+    // Прямая печать в текущий System.out, поток берется в момент вызова
+    static LineSink systemOut() {
+        return new LineSink() {
+            @Override
+            public void println(String line) {
+                System.out.println(line);
+            }
+
+            @Override
+            public void flush() {
+                System.out.flush();
+            }
+        };
+    }
+}
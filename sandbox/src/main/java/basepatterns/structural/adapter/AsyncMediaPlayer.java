@@ -0,0 +1,125 @@
+package basepatterns.structural.adapter;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Асинхронная обертка над {@link MediaPlayer}: каждое воспроизведение выполняется в отдельной задаче,
+ * вызывающий получает {@link CompletableFuture} и не ждет медленный файл.
+ * <br>
+ * <br>По умолчанию задачи идут на виртуальных потоках ({@code Executors.newVirtualThreadPerTaskExecutor()}),
+ * если JVM их поддерживает (Java 21+). Проект собирается под Java 17, поэтому метод ищется во время работы,
+ * а на старых JVM используется пул платформенных потоков {@link Executors#newCachedThreadPool()}.
+ * <br>
+ * <br>Число одновременных воспроизведений ограничено {@link Semaphore}. Разрешение берется до отправки
+ * задачи исполнителю: запрос без разрешения ждет в очереди и не занимает поток, а завершившееся
+ * воспроизведение передает разрешение следующему запросу из очереди. Поэтому исполнитель получает
+ * не больше {@code maxConcurrent} задач одновременно, и кеширующий пул на Java 17 не создает
+ * по потоку на каждый ожидающий запрос. Вызывающий поток при этом никогда не блокируется.
+ * Запрос, отмененный до начала воспроизведения, пропускается.
+ */
+class AsyncMediaPlayer implements AutoCloseable {
+
+    private final MediaPlayer player;
+    private final Semaphore permits;
+    private final Queue<Playback> waiting = new ConcurrentLinkedQueue<>();
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    public AsyncMediaPlayer(MediaPlayer player, int maxConcurrent) {
+        this(player, maxConcurrent, newPerTaskExecutor(), true);
+    }
+
+    public AsyncMediaPlayer(MediaPlayer player, int maxConcurrent, ExecutorService executor) {
+        this(player, maxConcurrent, executor, false);
+    }
+
+    private AsyncMediaPlayer(MediaPlayer player, int maxConcurrent, ExecutorService executor, boolean ownsExecutor) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive: " + maxConcurrent);
+        }
+        this.player = Objects.requireNonNull(player, "player");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.permits = new Semaphore(maxConcurrent);
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    public CompletableFuture<Void> playAsync(String audioType, String fileName) {
+        Playback playback = new Playback(audioType, fileName);
+        waiting.add(playback);
+        drain();
+        return playback.result;
+    }
+
+    // Отправляет исполнителю ожидающие запросы, пока есть разрешения. Запрос ставится в очередь
+    // до попытки взять разрешение, а разрешение возвращается до проверки очереди, поэтому
+    // запрос не может остаться в очереди при свободном разрешении
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Playback playback = waiting.poll();
+            if (playback == null) {
+                permits.release();
+            } else {
+                submit(playback);
+            }
+        }
+    }
+
+    private void submit(Playback playback) {
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!playback.result.isDone()) {
+                        player.play(playback.audioType, playback.fileName);
+                        playback.result.complete(null);
+                    }
+                } catch (Throwable e) {
+                    playback.result.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                    drain();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            playback.result.completeExceptionally(e);
+        }
+    }
+
+    // Исполнитель "поток на задачу": виртуальные потоки, если доступны, иначе кеширующий пул
+    static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return Executors.newCachedThreadPool();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    // Останавливает только собственный исполнитель; уже запущенные воспроизведения завершаются,
+    // а ожидающие в очереди завершатся с RejectedExecutionException
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private static final class Playback {
+        final String audioType;
+        final String fileName;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        Playback(String audioType, String fileName) {
+            this.audioType = audioType;
+            this.fileName = fileName;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package basepatterns.structural.adapter;
 
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
 /**
  * <h3>Адаптер</h3>
  * <br>
@@ -59,6 +62,11 @@ public class ClassAdapter {
         System.out.println("3 volts: " + v3.getVolts());
         System.out.println("12 volts: " + v12.getVolts());
         System.out.println("120 volts: " + v120.getVolts());
+
+        // Пакетное преобразование показаний датчиков на месте
+        int[] readings = {120, 230, 110, 240};
+        adapter.convertTo12Volt(readings);
+        System.out.println("12 volt batch: " + Arrays.toString(readings));
     }
 }
 
@@ -67,17 +75,26 @@ interface SocketAdapter {
     Volt get120Volt();
     Volt get12Volt();
     Volt get3Volt();
+
+    // Пакетное преобразование входных напряжений на месте, с тем же коэффициентом, что у get12Volt/get3Volt
+    void convertTo12Volt(int[] volts);
+    void convertTo3Volt(int[] volts);
+    void convertTo12Volt(IntBuffer volts);
+    void convertTo3Volt(IntBuffer volts);
 }
 
 // Адаптируемый класс
 class Socket {
     public Volt getVolt() {
-        return new Volt(120);
+        return Volt.of(120);
     }
 }
 
 // Адаптер (наследование)
 class SocketClassAdapter extends Socket implements SocketAdapter {
+    private static final VoltConverter TO_12_VOLT = new VoltConverter(10);
+    private static final VoltConverter TO_3_VOLT = new VoltConverter(40);
+
     @Override
     public Volt get120Volt() {
         return getVolt();
@@ -95,24 +112,71 @@ class SocketClassAdapter extends Socket implements SocketAdapter {
         return convertVolt(v, 40);
     }
 
+    @Override
+    public void convertTo12Volt(int[] volts) {
+        TO_12_VOLT.convert(volts);
+    }
+
+    @Override
+    public void convertTo3Volt(int[] volts) {
+        TO_3_VOLT.convert(volts);
+    }
+
+    @Override
+    public void convertTo12Volt(IntBuffer volts) {
+        TO_12_VOLT.convert(volts);
+    }
+
+    @Override
+    public void convertTo3Volt(IntBuffer volts) {
+        TO_3_VOLT.convert(volts);
+    }
+
     private Volt convertVolt(Volt v, int i) {
-        return new Volt(v.getVolts() / i);
+        return Volt.of(v.getVolts() / i);
     }
 }
 
-// Вспомогательный класс
-class Volt {
-    private int volts;
+// Вспомогательный класс: неизменяемое значение, частые напряжения берутся из кеша
+final class Volt {
+    private static final int CACHE_MAX = 240;
+    private static final Volt[] CACHE = new Volt[CACHE_MAX + 1];
+
+    static {
+        for (int i = 0; i <= CACHE_MAX; i++) {
+            CACHE[i] = new Volt(i);
+        }
+    }
+
+    private final int volts;
 
-    public Volt(int volts) {
+    private Volt(int volts) {
         this.volts = volts;
     }
 
+    public static Volt of(int volts) {
+        if (volts >= 0 && volts <= CACHE_MAX) {
+            return CACHE[volts];
+        }
+        return new Volt(volts);
+    }
+
     public int getVolts() {
         return volts;
     }
 
-    public void setVolts(int volts) {
-        this.volts = volts;
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Volt other && other.volts == volts;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(volts);
+    }
+
+    @Override
+    public String toString() {
+        return volts + "V";
     }
 }
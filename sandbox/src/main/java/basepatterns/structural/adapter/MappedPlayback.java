@@ -0,0 +1,53 @@
+package basepatterns.structural.adapter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Чтение медиафайла через отображение в память ({@link FileChannel#map}) кадрами фиксированного размера.
+ * <br>
+ * <br>Файл отображается участками до {@link #MAX_REGION} байт, каждый кадр передается получателю
+ * как окно того же {@link MappedByteBuffer}: байты не копируются в массивы в куче,
+ * а на кадр не создается новых объектов.
+ */
+final class MappedPlayback {
+
+    public static final int DEFAULT_FRAME_SIZE = 64 * 1024;
+    private static final long MAX_REGION = 1L << 30;
+
+    // Получатель кадров; буфер действителен только во время вызова, сохранять его нельзя
+    @FunctionalInterface
+    interface FrameSink {
+        void accept(ByteBuffer frame);
+    }
+
+    private MappedPlayback() {}
+
+    // Возвращает число прочитанных байт
+    public static long stream(Path file, int frameSize, FrameSink sink) {
+        if (frameSize <= 0) {
+            throw new IllegalArgumentException("Frame size must be positive: " + frameSize);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long regionSize = Math.max(frameSize, MAX_REGION - MAX_REGION % frameSize);
+            for (long offset = 0; offset < size; offset += regionSize) {
+                long length = Math.min(regionSize, size - offset);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                for (int start = 0; start < length; start += frameSize) {
+                    int end = (int) Math.min(length, (long) start + frameSize);
+                    region.limit(end).position(start);
+                    sink.accept(region);
+                }
+            }
+            return size;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot play " + file, e);
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package basepatterns.structural.adapter;
 
+import basepatterns.output.Console;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * <h3>Адаптер</h3>
  * <br><b>Паттерн Адаптер</b> позволяет работать с несовместимыми интерфейсами,
@@ -54,6 +61,11 @@ public class ObjectAdapter {
 
         player = new MediaAdapter("vlc");
         player.play("vlc", "song.vlc");
+
+        // Асинхронное воспроизведение с ограничением числа одновременных сессий
+        try (AsyncMediaPlayer async = new AsyncMediaPlayer(new MediaAdapter("mp4"), 4)) {
+            async.playAsync("mp4", "trailer.mp4").join();
+        }
     }
 }
 
@@ -64,33 +76,98 @@ interface MediaPlayer {
 
 // Адаптируемый класс с несовместимым интерфейсом
 class AdvancedMediaPlayer {
+    // Если задан, содержимое файла читается кадрами и передается сюда (см. MappedPlayback)
+    private final MappedPlayback.FrameSink output;
+
+    public AdvancedMediaPlayer() {
+        this(null);
+    }
+
+    public AdvancedMediaPlayer(MappedPlayback.FrameSink output) {
+        this.output = output;
+    }
+
     public void playVlc(String fileName) {
-        System.out.println("Playing vlc file: " + fileName);
+        Console.println("Playing vlc file: " + fileName);
+        stream(fileName);
     }
 
     public void playMp4(String fileName) {
-        System.out.println("Playing mp4 file: " + fileName);
+        Console.println("Playing mp4 file: " + fileName);
+        stream(fileName);
+    }
+
+    private void stream(String fileName) {
+        if (output != null) {
+            MappedPlayback.stream(Path.of(fileName), MappedPlayback.DEFAULT_FRAME_SIZE, output);
+        }
+    }
+}
+
+// Форматы, которые умеет воспроизводить AdvancedMediaPlayer
+enum AudioFormat {
+    VLC(AdvancedMediaPlayer::playVlc),
+    MP4(AdvancedMediaPlayer::playMp4);
+
+    // Ключи — имена форматов в нижнем регистре
+    private static final Map<String, AudioFormat> BY_NAME = new HashMap<>();
+
+    static {
+        for (AudioFormat format : values()) {
+            BY_NAME.put(format.name().toLowerCase(Locale.ROOT), format);
+        }
+    }
+
+    private final PlayHandler handler;
+
+    AudioFormat(PlayHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Формат по имени без учета регистра или null, если формат не поддерживается.
+     * Имя в нижнем регистре находится одним поиском в {@link HashMap}; строка приводится
+     * к нижнему регистру только если такого ключа нет.
+     */
+    static AudioFormat of(String audioType) {
+        if (audioType == null) {
+            return null;
+        }
+        AudioFormat format = BY_NAME.get(audioType);
+        return format != null ? format : BY_NAME.get(audioType.toLowerCase(Locale.ROOT));
+    }
+
+    void play(AdvancedMediaPlayer player, String fileName) {
+        handler.play(player, fileName);
+    }
+
+    @FunctionalInterface
+    private interface PlayHandler {
+        void play(AdvancedMediaPlayer player, String fileName);
     }
 }
 
 // Адаптер, преобразующий интерфейс AdvancedMediaPlayer в MediaPlayer
 class MediaAdapter implements MediaPlayer {
-    private AdvancedMediaPlayer advancedMediaPlayer;
+    private final AdvancedMediaPlayer advancedMediaPlayer;
 
     public MediaAdapter(String audioType) {
-        if(audioType.equalsIgnoreCase("vlc")) {
-            advancedMediaPlayer = new AdvancedMediaPlayer();
-        } else if(audioType.equalsIgnoreCase("mp4")) {
-            advancedMediaPlayer = new AdvancedMediaPlayer();
-        }
+        this(audioType, null);
+    }
+
+    public MediaAdapter(String audioType, MappedPlayback.FrameSink output) {
+        this.advancedMediaPlayer = AudioFormat.of(audioType) != null ? new AdvancedMediaPlayer(output) : null;
     }
 
     @Override
     public void play(String audioType, String fileName) {
-        if(audioType.equalsIgnoreCase("vlc")) {
-            advancedMediaPlayer.playVlc(fileName);
-        } else if(audioType.equalsIgnoreCase("mp4")) {
-            advancedMediaPlayer.playMp4(fileName);
+        play(AudioFormat.of(audioType), fileName);
+    }
+
+    // Для вызывающих, которые разобрали формат заранее: без работы со строкой на каждый вызов
+    public void play(AudioFormat format, String fileName) {
+        if (format != null && advancedMediaPlayer != null) {
+            format.play(advancedMediaPlayer, fileName);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package basepatterns.structural.adapter;
+
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+/**
+ * Пакетное деление напряжений на постоянный коэффициент на месте, без объектов {@link Volt}.
+ * <br>
+ * <br>Целочисленное деление JIT не векторизует, поэтому для входов от 0 до {@link #MAX_FAST_VOLTS}
+ * деление заменено умножением на заранее посчитанную обратную величину и сдвигом:
+ * {@code v / d == (v * multiplier) >>> shift}. Множитель подобран так, что результат точен
+ * во всем диапазоне и произведение не выходит за {@code int}. Такой цикл из одних
+ * умножений и сдвигов C2 превращает в SIMD-инструкции.
+ * <br>
+ * <br>Перед преобразованием отдельный проход проверяет диапазон (свертка по OR тоже векторизуется).
+ * Если встретилось отрицательное или слишком большое значение, весь отрезок делится обычным делением,
+ * с тем же результатом, что и у поштучного преобразования.
+ */
+final class VoltConverter {
+
+    static final int MAX_FAST_VOLTS = Short.MAX_VALUE;
+    // Буфер для непрямых IntBuffer без массива, чтобы цикл работал с int[]
+    private static final int CHUNK = 4096;
+
+    private final int divisor;
+    private final int multiplier;
+    private final int shift;
+
+    VoltConverter(int divisor) {
+        if (divisor <= 0 || divisor > 0xFFFF) {
+            throw new IllegalArgumentException("Divisor must be in 1..65535: " + divisor);
+        }
+        this.divisor = divisor;
+        // Наименьший shift, при котором 2^shift > MAX_FAST_VOLTS * divisor; тогда ошибка округления
+        // множителя меньше 1/divisor, а MAX_FAST_VOLTS * multiplier < 2^31
+        int s = 0;
+        while ((1L << s) <= (long) MAX_FAST_VOLTS * divisor) {
+            s++;
+        }
+        this.shift = s;
+        this.multiplier = (int) (((1L << s) + divisor - 1) / divisor);
+    }
+
+    public void convert(int[] volts) {
+        convert(volts, 0, volts.length);
+    }
+
+    public void convert(int[] volts, int from, int to) {
+        Objects.checkFromToIndex(from, to, volts.length);
+        if (fitsFastRange(volts, from, to)) {
+            int m = multiplier;
+            int s = shift;
+            for (int i = from; i < to; i++) {
+                volts[i] = (volts[i] * m) >>> s;
+            }
+        } else {
+            int d = divisor;
+            for (int i = from; i < to; i++) {
+                volts[i] = volts[i] / d;
+            }
+        }
+    }
+
+    // Преобразует элементы от position до limit; позиция буфера не меняется
+    public void convert(IntBuffer volts) {
+        if (volts.isReadOnly()) {
+            throw new IllegalArgumentException("Buffer is read-only");
+        }
+        int position = volts.position();
+        int limit = volts.limit();
+        if (volts.hasArray()) {
+            int offset = volts.arrayOffset();
+            convert(volts.array(), offset + position, offset + limit);
+            return;
+        }
+        int[] chunk = new int[Math.min(CHUNK, limit - position)];
+        for (int start = position; start < limit; start += chunk.length) {
+            int length = Math.min(chunk.length, limit - start);
+            volts.get(start, chunk, 0, length);
+            convert(chunk, 0, length);
+            volts.put(start, chunk, 0, length);
+        }
+    }
+
+    private static boolean fitsFastRange(int[] volts, int from, int to) {
+        int bits = 0;
+        for (int i = from; i < to; i++) {
+            bits |= volts[i];
+        }
+        return (bits & ~MAX_FAST_VOLTS) == 0;
+    }
+}
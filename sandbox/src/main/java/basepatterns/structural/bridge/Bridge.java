@@ -1,5 +1,9 @@
 package basepatterns.structural.bridge;
 
+import basepatterns.output.Console;
+
+import java.util.List;
+
 /**
  * <h3>Мост</h3>
  * <br><b>Паттерн Мост</b> это структурный паттерн проектирования, который разделяет
@@ -43,6 +47,12 @@ public class Bridge {
 
         Programm shopApp = new ShopApp(new CppDeveloper());
         shopApp.createProgramm();
+
+        // Пачка программ, выполняемая параллельно
+        try (ProgrammScheduler scheduler = new ProgrammScheduler()) {
+            scheduler.submit(List.of(bankApp, shopApp, new BankApp(new CppDeveloper()))).join();
+            System.out.println("Completed by developer: " + scheduler.completedByDeveloper());
+        }
     }
 }
 
@@ -53,14 +63,14 @@ interface Developer {
 class JavaDeveloper implements Developer {
     @Override
     public void writeCode() {
-        System.out.println("Java developer writes code...");
+        Console.println("Java developer writes code...");
     }
 }
 
 class CppDeveloper implements Developer {
     @Override
     public void writeCode() {
-        System.out.println("C++ developer writes code...");
+        Console.println("C++ developer writes code...");
     }
 }
 
@@ -78,7 +88,7 @@ class BankApp extends Programm {
 
     @Override
     void createProgramm() {
-        System.out.println("Bank application in progress...");
+        Console.println("Bank application in progress...");
         developer.writeCode();
     }
 }
@@ -91,7 +101,7 @@ class ShopApp extends Programm {
 
     @Override
     void createProgramm() {
-        System.out.println("Shop application in progress...");
+        Console.println("Shop application in progress...");
         developer.writeCode();
     }
 }
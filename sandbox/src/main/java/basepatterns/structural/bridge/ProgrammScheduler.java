@@ -0,0 +1,130 @@
+package basepatterns.structural.bridge;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Планировщик, выполняющий пачки {@link Programm} параллельно в {@link ForkJoinPool}.
+ * <br>
+ * <br>Пачка делится пополам, пока в части больше {@link #SPLIT_THRESHOLD} программ,
+ * половины забирают свободные потоки пула (work stealing).
+ * {@link #submit(List)} возвращает {@link CompletableFuture}, который завершается,
+ * когда выполнена вся пачка, либо завершается с первой возникшей ошибкой.
+ * Пачка один раз копируется в массив, поэтому доступ по индексу дешев для любого {@link List},
+ * в том числе для {@link java.util.LinkedList}, а последующие изменения списка на нее не влияют.
+ * <br>
+ * <br>Для каждого типа {@link Developer} ведется счетчик выполненных программ ({@link LongAdder}).
+ */
+class ProgrammScheduler implements AutoCloseable {
+
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final ConcurrentMap<Class<? extends Developer>, LongAdder> completed = new ConcurrentHashMap<>();
+
+    public ProgrammScheduler() {
+        this(new ForkJoinPool(), true);
+    }
+
+    public ProgrammScheduler(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    private ProgrammScheduler(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.ownsPool = ownsPool;
+    }
+
+    public CompletableFuture<Void> submit(List<? extends Programm> programms) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Programm[] batch = programms.toArray(new Programm[0]);
+        if (batch.length == 0) {
+            result.complete(null);
+        } else {
+            pool.execute(new BatchTask(null, batch, 0, batch.length, result));
+        }
+        return result;
+    }
+
+    public long completed(Class<? extends Developer> developerType) {
+        LongAdder counter = completed.get(developerType);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    // Снимок счетчиков: простое имя типа разработчика → число выполненных программ
+    public Map<String, Long> completedByDeveloper() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        completed.forEach((type, counter) -> snapshot.put(type.getSimpleName(), counter.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private LongAdder counterFor(Programm programm) {
+        return completed.computeIfAbsent(programm.developer.getClass(), type -> new LongAdder());
+    }
+
+    // ForkJoinTask объявлен Serializable, но задачи планировщика никогда не сериализуются
+    @SuppressWarnings("serial")
+    private final class BatchTask extends CountedCompleter<Void> {
+        private final Programm[] programms;
+        private final int from;
+        private int to;
+        // Задан только у корневой задачи
+        private final CompletableFuture<Void> result;
+
+        BatchTask(CountedCompleter<?> parent, Programm[] programms, int from, int to,
+                  CompletableFuture<Void> result) {
+            super(parent);
+            this.programms = programms;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        public void compute() {
+            while (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                addToPendingCount(1);
+                new BatchTask(this, programms, middle, to, null).fork();
+                to = middle;
+            }
+            for (int i = from; i < to; i++) {
+                Programm programm = programms[i];
+                programm.createProgramm();
+                counterFor(programm).increment();
+            }
+            tryComplete();
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (result != null) {
+                result.complete(null);
+            }
+        }
+
+        @Override
+        public boolean onExceptionalCompletion(Throwable ex, CountedCompleter<?> caller) {
+            if (result != null) {
+                result.completeExceptionally(ex);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package basepatterns.structural.composite;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Ленивый обход дерева {@link Component} в глубину (прямой порядок) для {@link Component#stream()}.
+ * <br>
+ * <br>Узлы раскрываются только по мере продвижения, промежуточных списков нет,
+ * поэтому {@code findFirst}/{@code anyMatch} останавливают обход сразу.
+ * <br>
+ * <br>{@link #trySplit()} отдает начальную часть обхода: узлы, которые осталось выдать без детей,
+ * и ожидающие поддеревья, пока их оценка не наберет половину оставшегося. Если ожидает одно поддерево,
+ * оно сначала раскрывается: корень переходит в выдаваемые без детей, а дети — в ожидающие.
+ * Поэтому обе части можно делить дальше, а порядок обхода сохраняется.
+ */
+final class ComponentSpliterator implements Spliterator<Component> {
+
+    private static final Component[] NO_CHILDREN = new Component[0];
+
+    // Узлы, которые нужно выдать без обхода их детей (остаются после раскрытия при разделении)
+    private Deque<Component> heads;
+    // Ожидающие поддеревья; первое в очереди обходится первым
+    private final Deque<Component> pending;
+    // Дети раскрываемого узла: курсор идет вперед, а в очередь они встают с конца
+    private Component[] buffer = NO_CHILDREN;
+
+    ComponentSpliterator(Component root) {
+        this(new ArrayDeque<>(), new ArrayDeque<>());
+        pending.push(root);
+    }
+
+    private ComponentSpliterator(Deque<Component> heads, Deque<Component> pending) {
+        this.heads = heads;
+        this.pending = pending;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Component> action) {
+        Component node = heads.pollFirst();
+        if (node != null) {
+            action.accept(node);
+            return true;
+        }
+        node = pending.pollFirst();
+        if (node == null) {
+            return false;
+        }
+        pushChildren(node);
+        action.accept(node);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Component> trySplit() {
+        if (pending.size() == 1) {
+            Component node = pending.peekFirst();
+            if (node.getChildCount() < 2) {
+                return heads.isEmpty() ? null : splitOff(new ArrayDeque<>());
+            }
+            pending.pollFirst();
+            heads.addLast(node);
+            for (Iterator<Component> children = node.children(); children.hasNext(); ) {
+                pending.addLast(children.next());
+            }
+        }
+        if (pending.size() < 2) {
+            return null;
+        }
+        long half = estimateSize() / 2;
+        long taken = heads.size();
+        Deque<Component> prefix = new ArrayDeque<>();
+        while (taken < half && pending.size() > 1) {
+            Component node = pending.pollFirst();
+            prefix.addLast(node);
+            taken += estimateOf(node);
+        }
+        return splitOff(prefix);
+    }
+
+    // Отдает головы вместе с начальными поддеревьями prefix
+    private ComponentSpliterator splitOff(Deque<Component> prefix) {
+        ComponentSpliterator split = new ComponentSpliterator(heads, prefix);
+        heads = new ArrayDeque<>();
+        return split;
+    }
+
+    // Ставит детей узла в начало очереди в их порядке
+    private void pushChildren(Component node) {
+        int count = node.getChildCount();
+        if (count == 0) {
+            return;
+        }
+        if (buffer.length < count) {
+            buffer = new Component[count];
+        }
+        int size = 0;
+        for (Iterator<Component> children = node.children(); children.hasNext(); ) {
+            buffer[size++] = children.next();
+        }
+        while (size > 0) {
+            pending.addFirst(buffer[--size]);
+            buffer[size] = null;
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = heads.size();
+        for (Component node : pending) {
+            size += estimateOf(node);
+        }
+        return size;
+    }
+
+    // Для композитов и узлов MappedTree размер поддерева известен заранее, для остальных узлов оценка — 1
+    private static long estimateOf(Component node) {
+        if (node instanceof Composite composite) {
+            return composite.getNodeCount();
+        }
+        if (node instanceof MappedTree.Node stored) {
+            return stored.getNodeCount();
+        }
+        return 1;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -1,7 +1,21 @@
 package basepatterns.structural.composite;
 
+import basepatterns.output.Console;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <h3>Компоновщик</h3>
@@ -24,7 +38,7 @@ import java.util.List;
  * <br>&emsp;- Избыточность — если структура простая, паттерн может усложнить код.
  */
 public class CompositePattern {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Создаем листья
         Component leaf1 = new Leaf("Leaf 1");
         Component leaf2 = new Leaf("Leaf 2");
@@ -46,15 +60,86 @@ public class CompositePattern {
 
         // Вызываем операцию для всей структуры
         root.operation();
+
+        // Тот же обход без рекурсии и параллельно
+        System.out.println("\nIterative traversal:");
+        CompositeTraversal.iterativeOperation(root);
+        System.out.println("\nParallel traversal:");
+        CompositeTraversal.parallelOperation(root);
+
+        // Агрегаты поддерева хранятся в композитах и не требуют обхода
+        System.out.println("\nLeaves: " + root.getLeafCount()
+                + ", nodes: " + root.getNodeCount() + ", depth: " + root.getDepth());
+
+        // Обход дерева как Stream
+        System.out.println("Leaf names: " + root.stream()
+                .filter(Leaf.class::isInstance)
+                .map(Component::getName)
+                .toList());
+
+        // То же дерево, разложенное в массивы
+        System.out.println("\nFlat tree:");
+        FlatTree.copyOf(root).operation();
+
+        // То же дерево в файле, открытое через отображение в память
+        System.out.println("\nMapped tree:");
+        Path file = Files.createTempFile("composite", ".tree");
+        TreeFileWriter.write(root, file);
+        MappedTree.open(file).root().operation();
+        Files.delete(file);
     }
 }
 
 // Базовый интерфейс компонента
 interface Component {
+    String getName();
     void operation();
+    // Операция только над самим узлом, без обхода детей
+    void selfOperation();
     void add(Component component);
     void remove(Component component);
     Component getChild(int index);
+    int getChildCount();
+
+    // Дети по порядку. Обходы используют его, а не getChild(int): у плоского и отображенного
+    // деревьев доступ по номеру идет по цепочке соседей, а курсор делает один шаг на ребенка
+    default Iterator<Component> children() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < getChildCount();
+            }
+
+            @Override
+            public Component next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getChild(next++);
+            }
+        };
+    }
+
+    // Лист или композит. Композит без детей остается композитом; по умолчанию листом считается узел без детей
+    default boolean isLeaf() {
+        return getChildCount() == 0;
+    }
+
+    // Ленивый обход поддерева в глубину, начиная с самого компонента
+    default Spliterator<Component> spliterator() {
+        return new ComponentSpliterator(this);
+    }
+
+    default Stream<Component> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    // Параллельный обход, поддеревья распределяются между потоками
+    default Stream<Component> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
 
 // Листовой компонент (не имеет детей)
@@ -65,9 +150,19 @@ class Leaf implements Component {
         this.name = name;
     }
 
+    @Override
+    public String getName() {
+        return name;
+    }
+
     @Override
     public void operation() {
-        System.out.println("Leaf " + name + " is performing operation.");
+        selfOperation();
+    }
+
+    @Override
+    public void selfOperation() {
+        Console.println("Leaf " + name + " is performing operation.");
     }
 
     @Override
@@ -84,37 +179,295 @@ class Leaf implements Component {
     public Component getChild(int index) {
         throw new UnsupportedOperationException("Leaf has no children.");
     }
+
+    @Override
+    public int getChildCount() {
+        return 0;
+    }
 }
 
 // Композитный компонент (может содержать другие компоненты)
+// Хранит агрегаты своего поддерева: число листьев и узлов, глубину и пользовательские SubtreeAggregate.
+// add/remove обновляют или сбрасывают их только на пути к корню. Листья считаются по Component.isLeaf().
 class Composite implements Component {
     private String name;
-    private List<Component> children = new ArrayList<>();
+    private List<Component> children;
+    private Composite parent;
+
+    private int leafCount;
+    private int nodeCount = 1;
+    // Наибольшая глубина поддерева; пересчитывается лениво после удаления самой глубокой ветви
+    private int depth;
+    private boolean depthValid = true;
+    // Кеш пользовательских агрегатов; если у узла кеш пуст, то пуст и у всех его предков
+    private Map<SubtreeAggregate<?>, Object> aggregates;
 
     public Composite(String name) {
+        this(name, false);
+    }
+
+    // fastRemoval: удаление детей за O(1), но без сохранения их порядка (см. IndexedChildren)
+    public Composite(String name, boolean fastRemoval) {
         this.name = name;
+        this.children = fastRemoval ? new IndexedChildren() : new ArrayList<>();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public Composite getParent() {
+        return parent;
     }
 
     @Override
     public void operation() {
-        System.out.println("Composite " + name + " is performing operation.");
+        selfOperation();
         for (Component child : children) {
             child.operation();
         }
     }
 
+    @Override
+    public void selfOperation() {
+        Console.println("Composite " + name + " is performing operation.");
+    }
+
     @Override
     public void add(Component component) {
+        if (component instanceof Composite composite) {
+            if (composite.parent != null) {
+                throw new IllegalArgumentException("Component already has a parent.");
+            }
+            for (Composite ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor == composite) {
+                    throw new IllegalArgumentException("Cannot add an ancestor as a child.");
+                }
+            }
+        }
         children.add(component);
+        if (component instanceof Composite composite) {
+            composite.parent = this;
+        }
+        updatePath(leafCountOf(component), nodeCountOf(component));
+        int childDepth = depthOf(component) + 1;
+        for (Composite node = this; node != null && node.depthValid && childDepth > node.depth; node = node.parent) {
+            node.depth = childDepth++;
+        }
     }
 
     @Override
     public void remove(Component component) {
-        children.remove(component);
+        boolean removed = children instanceof IndexedChildren indexed
+                ? indexed.swapRemove(component)
+                : children.remove(component);
+        if (!removed) {
+            return;
+        }
+        if (component instanceof Composite composite) {
+            composite.parent = null;
+        }
+        updatePath(-leafCountOf(component), -nodeCountOf(component));
+        if (depthValid && depthOf(component) + 1 == depth) {
+            for (Composite node = this; node != null && node.depthValid; node = node.parent) {
+                node.depthValid = false;
+            }
+        }
     }
 
     @Override
     public Component getChild(int index) {
         return children.get(index);
     }
+
+    @Override
+    public int getChildCount() {
+        return children.size();
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return false;
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    // Число узлов поддерева, включая сам композит
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    // Число ребер от композита до самого глубокого потомка; 0 для композита без детей
+    public int getDepth() {
+        if (!depthValid) {
+            recomputeDepth();
+        }
+        return depth;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T aggregate(SubtreeAggregate<T> aggregate) {
+        if (aggregates == null || !aggregates.containsKey(aggregate)) {
+            recomputeAggregate(aggregate);
+        }
+        return (T) aggregates.get(aggregate);
+    }
+
+    private void updatePath(int leaves, int nodes) {
+        boolean clearAggregates = true;
+        for (Composite node = this; node != null; node = node.parent) {
+            node.leafCount += leaves;
+            node.nodeCount += nodes;
+            if (clearAggregates) {
+                clearAggregates = node.aggregates != null && !node.aggregates.isEmpty();
+                if (clearAggregates) {
+                    node.aggregates.clear();
+                }
+            }
+        }
+    }
+
+    // Пересчет снизу вверх только по узлам со сброшенной глубиной, без рекурсии
+    private void recomputeDepth() {
+        Deque<Composite> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            Composite node = stack.peek();
+            boolean ready = true;
+            for (Component child : node.children) {
+                if (child instanceof Composite composite && !composite.depthValid) {
+                    stack.push(composite);
+                    ready = false;
+                }
+            }
+            if (ready) {
+                stack.pop();
+                int max = 0;
+                for (Component child : node.children) {
+                    max = Math.max(max, depthOf(child) + 1);
+                }
+                node.depth = max;
+                node.depthValid = true;
+            }
+        }
+    }
+
+    private <T> void recomputeAggregate(SubtreeAggregate<T> aggregate) {
+        Deque<Composite> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            Composite node = stack.peek();
+            boolean ready = true;
+            for (Component child : node.children) {
+                if (child instanceof Composite composite && !composite.hasAggregate(aggregate)) {
+                    stack.push(composite);
+                    ready = false;
+                }
+            }
+            if (ready) {
+                stack.pop();
+                T value = aggregate.identity();
+                for (Component child : node.children) {
+                    value = aggregate.combine(value, aggregateOf(child, aggregate));
+                }
+                if (node.aggregates == null) {
+                    node.aggregates = new IdentityHashMap<>();
+                }
+                node.aggregates.put(aggregate, value);
+            }
+        }
+    }
+
+    private boolean hasAggregate(SubtreeAggregate<?> aggregate) {
+        return aggregates != null && aggregates.containsKey(aggregate);
+    }
+
+    private static int leafCountOf(Component component) {
+        if (component instanceof Composite composite) {
+            return composite.leafCount;
+        }
+        if (component.getChildCount() == 0) {
+            return component.isLeaf() ? 1 : 0;
+        }
+        int leaves = 0;
+        for (Component node : subtree(component)) {
+            if (node.isLeaf()) {
+                leaves++;
+            }
+        }
+        return leaves;
+    }
+
+    private static int nodeCountOf(Component component) {
+        if (component instanceof Composite composite) {
+            return composite.nodeCount;
+        }
+        return component.getChildCount() == 0 ? 1 : subtree(component).size();
+    }
+
+    private static int depthOf(Component component) {
+        if (component instanceof Composite composite) {
+            return composite.getDepth();
+        }
+        if (component.getChildCount() == 0) {
+            return 0;
+        }
+        // Компонент другой реализации: обход в глубину со стеком курсоров, глубина — высота стека
+        Deque<Iterator<Component>> path = new ArrayDeque<>();
+        path.push(component.children());
+        int max = 1;
+        while (!path.isEmpty()) {
+            Iterator<Component> children = path.peek();
+            if (!children.hasNext()) {
+                path.pop();
+                continue;
+            }
+            Component child = children.next();
+            if (child.getChildCount() > 0) {
+                path.push(child.children());
+                max = Math.max(max, path.size());
+            }
+        }
+        return max;
+    }
+
+    private static <T> T aggregateOf(Component component, SubtreeAggregate<T> aggregate) {
+        if (component instanceof Composite composite) {
+            return composite.aggregate(aggregate);
+        }
+        if (component.getChildCount() == 0) {
+            return component.isLeaf() ? aggregate.ofLeaf(component) : aggregate.identity();
+        }
+        T value = aggregate.identity();
+        for (Component node : subtree(component)) {
+            if (node.isLeaf()) {
+                value = aggregate.combine(value, aggregate.ofLeaf(node));
+            }
+        }
+        return value;
+    }
+
+    // Узлы поддерева компонента другой реализации в прямом порядке обхода
+    private static List<Component> subtree(Component root) {
+        List<Component> nodes = new ArrayList<>();
+        nodes.add(root);
+        Deque<Iterator<Component>> path = new ArrayDeque<>();
+        path.push(root.children());
+        while (!path.isEmpty()) {
+            Iterator<Component> children = path.peek();
+            if (!children.hasNext()) {
+                path.pop();
+                continue;
+            }
+            Component child = children.next();
+            nodes.add(child);
+            if (child.getChildCount() > 0) {
+                path.push(child.children());
+            }
+        }
+        return nodes;
+    }
 }
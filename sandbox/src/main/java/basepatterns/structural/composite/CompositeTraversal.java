@@ -0,0 +1,88 @@
+package basepatterns.structural.composite;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Альтернативные способы обхода дерева {@link Component}.
+ * <br>
+ * <br>&emsp;- {@link #iterativeOperation(Component)} — обход в глубину с явным стеком.
+ * Порядок тот же, что у {@link Component#operation()}, но глубина дерева
+ * не ограничена размером стека потока.
+ * <br>&emsp;- {@link #parallelOperation(Component, ForkJoinPool)} — обход в {@link ForkJoinPool}.
+ * Поддеревья отдаются другим потокам, пока в очереди мало задач, остальное
+ * обходится локально с явным стеком. Порядок вызовов не гарантируется.
+ */
+final class CompositeTraversal {
+
+    // Сколько лишних задач в очереди потока допускается, прежде чем обходить поддерево самому
+    private static final int SURPLUS_THRESHOLD = 3;
+
+    private CompositeTraversal() {}
+
+    // В стеке лежат курсоры по детям узлов на пути от корня, поэтому каждый ребенок достается за один шаг
+    public static void iterativeOperation(Component root) {
+        root.selfOperation();
+        Deque<Iterator<Component>> path = new ArrayDeque<>();
+        path.push(root.children());
+        while (!path.isEmpty()) {
+            Iterator<Component> children = path.peek();
+            if (!children.hasNext()) {
+                path.pop();
+                continue;
+            }
+            Component child = children.next();
+            child.selfOperation();
+            if (child.getChildCount() > 0) {
+                path.push(child.children());
+            }
+        }
+    }
+
+    public static void parallelOperation(Component root) {
+        parallelOperation(root, ForkJoinPool.commonPool());
+    }
+
+    public static void parallelOperation(Component root, ForkJoinPool pool) {
+        pool.invoke(new OperationTask(null, root));
+    }
+
+    // ForkJoinTask объявлен Serializable, но задачи обхода никогда не сериализуются
+    @SuppressWarnings("serial")
+    private static final class OperationTask extends CountedCompleter<Void> {
+        private final Component root;
+
+        OperationTask(CountedCompleter<?> parent, Component root) {
+            super(parent);
+            this.root = root;
+        }
+
+        @Override
+        public void compute() {
+            root.selfOperation();
+            Deque<Iterator<Component>> path = new ArrayDeque<>();
+            path.push(root.children());
+            while (!path.isEmpty()) {
+                Iterator<Component> children = path.peek();
+                if (!children.hasNext()) {
+                    path.pop();
+                    continue;
+                }
+                Component child = children.next();
+                if (child.getChildCount() == 0) {
+                    child.selfOperation();
+                } else if (getSurplusQueuedTaskCount() < SURPLUS_THRESHOLD) {
+                    addToPendingCount(1);
+                    new OperationTask(this, child).fork();
+                } else {
+                    child.selfOperation();
+                    path.push(child.children());
+                }
+            }
+            tryComplete();
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package basepatterns.structural.composite;
+
+import basepatterns.output.Console;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Дерево компонентов, целиком хранящееся в примитивных массивах.
+ * <br>
+ * <br>Каждый узел — это индекс, а связи между узлами записаны в массивах
+ * {@code parent}, {@code firstChild}, {@code lastChild}, {@code nextSibling} и {@code prevSibling}.
+ * Имена лежат в общей таблице {@code names}. На узел приходится шесть {@code int}, один {@code byte}
+ * и две ссылки (имя и представление) — около 33 байт без строки имени. Это в несколько раз меньше, чем {@link Composite}
+ * со своим {@code ArrayList}, но больше, чем {@link Leaf}, так что выигрыш по памяти дают в основном
+ * композиты. Обход при этом идет по соседним ячейкам массивов.
+ * <br>
+ * <br>Узлы выдаются наружу как представления {@link Node}, реализующие {@link Component},
+ * поэтому с плоским деревом можно работать так же, как с {@link Composite} и {@link Leaf}.
+ * Представление создается при первом обращении к узлу и затем переиспользуется.
+ * Доступ к ребенку по номеру идет по цепочке соседей, поэтому обходить детей
+ * нужно курсором {@link Node#children()}.
+ * <br>
+ * <br>{@link Node#remove(Component)} только отсоединяет узел, его можно добавить снова.
+ * Ненужное отсоединенное поддерево освобождается методом {@link #delete(Component)}:
+ * его ячейки попадают в список свободных и достаются новым узлам. Представление удаленного узла
+ * становится недействительным: любой его метод бросает {@link IllegalStateException}, даже если
+ * ячейка уже занята другим узлом.
+ * <br>
+ * <br>{@link #copyOf(Component)} раскладывает обычное дерево в массивы в порядке обхода в глубину.
+ */
+final class FlatTree {
+
+    private static final int NONE = -1;
+    private static final byte LEAF = 0;
+    private static final byte COMPOSITE = 1;
+    // Освобожденная ячейка; nextSibling в ней указывает на следующую свободную
+    private static final byte FREE = 2;
+
+    private int[] parent;
+    private int[] firstChild;
+    private int[] lastChild;
+    private int[] nextSibling;
+    private int[] prevSibling;
+    private int[] childCount;
+    private byte[] kind;
+    private String[] names;
+    // Представления узлов, создаются лениво
+    private Node[] views;
+    // Число занятых когда-либо ячеек и число живых узлов
+    private int slots;
+    private int size;
+    private int freeHead = NONE;
+
+    public FlatTree() {
+        this(16);
+    }
+
+    public FlatTree(int capacity) {
+        capacity = Math.max(capacity, 1);
+        parent = new int[capacity];
+        firstChild = new int[capacity];
+        lastChild = new int[capacity];
+        nextSibling = new int[capacity];
+        prevSibling = new int[capacity];
+        childCount = new int[capacity];
+        kind = new byte[capacity];
+        names = new String[capacity];
+    }
+
+    public Node newLeaf(String name) {
+        return view(allocate(name, LEAF));
+    }
+
+    public Node newComposite(String name) {
+        return view(allocate(name, COMPOSITE));
+    }
+
+    public Node node(int index) {
+        checkIndex(index);
+        return view(index);
+    }
+
+    // Число живых узлов, без освобожденных
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Освобождает отсоединенный узел вместе со всем поддеревом. Ячейки переиспользуются
+     * следующими новыми узлами, поэтому представления удаленных узлов использовать больше нельзя.
+     */
+    public void delete(Component component) {
+        int root = indexOf(component);
+        if (parent[root] != NONE) {
+            throw new IllegalArgumentException("Component must be removed from its parent first.");
+        }
+        // Обратный обход по ссылкам: узел освобождается, когда освобождены все его дети
+        int index = root;
+        while (true) {
+            while (firstChild[index] != NONE) {
+                index = firstChild[index];
+            }
+            int next = nextSibling[index];
+            int up = parent[index];
+            free(index);
+            if (index == root) {
+                return;
+            }
+            if (next != NONE) {
+                index = next;
+            } else {
+                firstChild[up] = NONE;
+                index = up;
+            }
+        }
+    }
+
+    /**
+     * Копирует дерево из обычных компонентов в новое плоское дерево.
+     * Листья и композиты различаются по {@link Component#isLeaf()}, как и в {@link TreeFileWriter}.
+     */
+    public static Node copyOf(Component root) {
+        FlatTree tree = new FlatTree();
+        int rootIndex = tree.allocate(root.getName(), root.isLeaf() ? LEAF : COMPOSITE);
+        Deque<Iterator<Component>> path = new ArrayDeque<>();
+        // Номера открытых композитов, параллельно стеку курсоров
+        int[] parents = new int[16];
+        int depth = 0;
+        path.push(root.children());
+        parents[depth++] = rootIndex;
+        while (!path.isEmpty()) {
+            Iterator<Component> children = path.peek();
+            if (!children.hasNext()) {
+                path.pop();
+                depth--;
+                continue;
+            }
+            Component child = children.next();
+            int index = tree.allocate(child.getName(), child.isLeaf() ? LEAF : COMPOSITE);
+            tree.link(parents[depth - 1], index);
+            if (child.getChildCount() > 0) {
+                if (depth == parents.length) {
+                    parents = Arrays.copyOf(parents, depth * 2);
+                }
+                path.push(child.children());
+                parents[depth++] = index;
+            }
+        }
+        return tree.view(rootIndex);
+    }
+
+    private int allocate(String name, byte nodeKind) {
+        int index;
+        if (freeHead != NONE) {
+            index = freeHead;
+            freeHead = nextSibling[index];
+        } else {
+            if (slots == names.length) {
+                grow();
+            }
+            index = slots++;
+        }
+        size++;
+        parent[index] = NONE;
+        firstChild[index] = NONE;
+        lastChild[index] = NONE;
+        nextSibling[index] = NONE;
+        prevSibling[index] = NONE;
+        childCount[index] = 0;
+        kind[index] = nodeKind;
+        names[index] = name;
+        return index;
+    }
+
+    private void grow() {
+        int capacity = names.length * 2;
+        parent = Arrays.copyOf(parent, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        lastChild = Arrays.copyOf(lastChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        prevSibling = Arrays.copyOf(prevSibling, capacity);
+        childCount = Arrays.copyOf(childCount, capacity);
+        kind = Arrays.copyOf(kind, capacity);
+        names = Arrays.copyOf(names, capacity);
+        if (views != null) {
+            views = Arrays.copyOf(views, capacity);
+        }
+    }
+
+    private void free(int index) {
+        kind[index] = FREE;
+        names[index] = null;
+        parent[index] = NONE;
+        // Старое представление больше не совпадает с views[index] и считается удаленным
+        views[index] = null;
+        nextSibling[index] = freeHead;
+        freeHead = index;
+        size--;
+    }
+
+    private Node view(int index) {
+        if (views == null) {
+            views = new Node[names.length];
+        }
+        Node view = views[index];
+        if (view == null) {
+            view = new Node(index);
+            views[index] = view;
+        }
+        return view;
+    }
+
+    private int indexOf(Component component) {
+        if (!(component instanceof Node node) || node.tree() != this) {
+            throw new IllegalArgumentException("Component does not belong to this tree.");
+        }
+        if (!node.isLive()) {
+            throw new IllegalArgumentException("Component has been deleted.");
+        }
+        return node.index;
+    }
+
+    private void link(int parentIndex, int child) {
+        int last = lastChild[parentIndex];
+        if (last == NONE) {
+            firstChild[parentIndex] = child;
+        } else {
+            nextSibling[last] = child;
+            prevSibling[child] = last;
+        }
+        lastChild[parentIndex] = child;
+        parent[child] = parentIndex;
+        childCount[parentIndex]++;
+    }
+
+    private void unlink(int child) {
+        int parentIndex = parent[child];
+        int prev = prevSibling[child];
+        int next = nextSibling[child];
+        if (prev == NONE) {
+            firstChild[parentIndex] = next;
+        } else {
+            nextSibling[prev] = next;
+        }
+        if (next == NONE) {
+            lastChild[parentIndex] = prev;
+        } else {
+            prevSibling[next] = prev;
+        }
+        parent[child] = NONE;
+        prevSibling[child] = NONE;
+        nextSibling[child] = NONE;
+        childCount[parentIndex]--;
+    }
+
+    private void selfOperation(int index) {
+        if (kind[index] == LEAF) {
+            Console.println("Leaf " + names[index] + " is performing operation.");
+        } else {
+            Console.println("Composite " + names[index] + " is performing operation.");
+        }
+    }
+
+    // Обход в глубину по ссылкам на соседей и родителя, без стека и без выделения памяти
+    private void operation(int root) {
+        int index = root;
+        while (true) {
+            selfOperation(index);
+            if (firstChild[index] != NONE) {
+                index = firstChild[index];
+                continue;
+            }
+            while (index != root && nextSibling[index] == NONE) {
+                index = parent[index];
+            }
+            if (index == root) {
+                return;
+            }
+            index = nextSibling[index];
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= slots) {
+            throw new IndexOutOfBoundsException("Node " + index + " out of bounds for length " + slots);
+        }
+        if (kind[index] == FREE) {
+            throw new IllegalArgumentException("Node " + index + " has been deleted.");
+        }
+    }
+
+    // Представление узла плоского дерева. Равенство по ссылке: у живого узла ровно одно представление,
+    // а удаленное не должно совпадать с новым узлом в той же ячейке
+    final class Node implements Component {
+        private final int index;
+
+        private Node(int index) {
+            this.index = index;
+        }
+
+        public int index() {
+            checkLive();
+            return index;
+        }
+
+        @Override
+        public String getName() {
+            checkLive();
+            return names[index];
+        }
+
+        @Override
+        public void operation() {
+            checkLive();
+            FlatTree.this.operation(index);
+        }
+
+        @Override
+        public void selfOperation() {
+            checkLive();
+            FlatTree.this.selfOperation(index);
+        }
+
+        @Override
+        public void add(Component component) {
+            checkLive();
+            if (kind[index] == LEAF) {
+                throw new UnsupportedOperationException("Cannot add to a leaf.");
+            }
+            int child = indexOf(component);
+            if (parent[child] != NONE) {
+                throw new IllegalArgumentException("Component already has a parent.");
+            }
+            for (int ancestor = index; ancestor != NONE; ancestor = parent[ancestor]) {
+                if (ancestor == child) {
+                    throw new IllegalArgumentException("Cannot add an ancestor as a child.");
+                }
+            }
+            link(index, child);
+        }
+
+        @Override
+        public void remove(Component component) {
+            checkLive();
+            if (kind[index] == LEAF) {
+                throw new UnsupportedOperationException("Cannot remove from a leaf.");
+            }
+            int child = indexOf(component);
+            if (parent[child] == index) {
+                unlink(child);
+            }
+        }
+
+        @Override
+        public Component getChild(int childIndex) {
+            checkLive();
+            if (kind[index] == LEAF) {
+                throw new UnsupportedOperationException("Leaf has no children.");
+            }
+            if (childIndex < 0 || childIndex >= childCount[index]) {
+                throw new IndexOutOfBoundsException("Index " + childIndex + " out of bounds for length " + childCount[index]);
+            }
+            // Идем от ближайшего конца списка детей
+            int child;
+            if (childIndex < childCount[index] / 2) {
+                child = firstChild[index];
+                for (int i = 0; i < childIndex; i++) {
+                    child = nextSibling[child];
+                }
+            } else {
+                child = lastChild[index];
+                for (int i = childCount[index] - 1; i > childIndex; i--) {
+                    child = prevSibling[child];
+                }
+            }
+            return view(child);
+        }
+
+        @Override
+        public Iterator<Component> children() {
+            checkLive();
+            return new Iterator<>() {
+                private int next = firstChild[index];
+
+                @Override
+                public boolean hasNext() {
+                    return next != NONE;
+                }
+
+                @Override
+                public Component next() {
+                    if (next == NONE) {
+                        throw new NoSuchElementException();
+                    }
+                    Node child = view(next);
+                    next = nextSibling[next];
+                    return child;
+                }
+            };
+        }
+
+        @Override
+        public int getChildCount() {
+            checkLive();
+            return childCount[index];
+        }
+
+        @Override
+        public boolean isLeaf() {
+            checkLive();
+            return kind[index] == LEAF;
+        }
+
+        // Представление живо, пока оно закреплено за своей ячейкой; free() его открепляет
+        private boolean isLive() {
+            return views[index] == this;
+        }
+
+        private void checkLive() {
+            if (!isLive()) {
+                throw new IllegalStateException("Node " + index + " has been deleted.");
+            }
+        }
+
+        private FlatTree tree() {
+            return FlatTree.this;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package basepatterns.structural.composite;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Список детей композита с поиском позиции по ссылке за O(1).
+ * <br>
+ * <br>Рядом со списком хранится таблица "компонент → позиция" с открытой адресацией
+ * по {@link System#identityHashCode(Object)}: ключи и позиции лежат в двух массивах,
+ * без записей и упакованных {@code Integer}.
+ * <br>
+ * <br>Методы {@link java.util.List} соблюдают его контракт: {@link #remove(int)} и {@link #remove(Object)}
+ * сохраняют порядок, сдвигая хвост списка и его позиции в таблице, то есть работают за O(n).
+ * Удаление за O(1) — отдельный метод {@link #swapRemove(Object)}: на место удаленного ребенка
+ * переставляется последний, поэтому порядок детей меняется.
+ * <br>
+ * <br>Компоненты сравниваются по ссылке, один и тот же компонент нельзя добавить дважды.
+ */
+final class IndexedChildren extends AbstractList<Component> implements RandomAccess {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private final List<Component> children = new ArrayList<>();
+    // Таблица позиций; емкость — степень двойки, заполнение не выше половины
+    private Component[] keys = new Component[MIN_CAPACITY];
+    private int[] positions = new int[MIN_CAPACITY];
+
+    @Override
+    public Component get(int index) {
+        return children.get(index);
+    }
+
+    @Override
+    public int size() {
+        return children.size();
+    }
+
+    @Override
+    public boolean add(Component component) {
+        if (keys[find(keys, component)] != null) {
+            throw new IllegalArgumentException("Component is already a child.");
+        }
+        if ((children.size() + 1) * 2 > keys.length) {
+            resize();
+        }
+        int slot = find(keys, component);
+        keys[slot] = component;
+        positions[slot] = children.size();
+        children.add(component);
+        modCount++;
+        return true;
+    }
+
+    // Удаление с сохранением порядка: позиции всех следующих детей сдвигаются на одну
+    @Override
+    public Component remove(int index) {
+        Component removed = children.remove(index);
+        delete(find(keys, removed));
+        for (int i = index; i < children.size(); i++) {
+            positions[find(keys, children.get(i))] = i;
+        }
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Удаляет компонент за O(1): на его место встает последний ребенок.
+     * Порядок детей после этого меняется.
+     */
+    public boolean swapRemove(Object o) {
+        int slot = find(keys, o);
+        if (keys[slot] == null) {
+            return false;
+        }
+        int index = positions[slot];
+        delete(slot);
+        int last = children.size() - 1;
+        Component moved = children.remove(last);
+        if (index != last) {
+            children.set(index, moved);
+            positions[find(keys, moved)] = index;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return keys[find(keys, o)] != null;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int slot = find(keys, o);
+        return keys[slot] == null ? -1 : positions[slot];
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public void clear() {
+        children.clear();
+        keys = new Component[MIN_CAPACITY];
+        positions = new int[MIN_CAPACITY];
+        modCount++;
+    }
+
+    // Ячейка ключа либо первая пустая ячейка, где он должен оказаться
+    private static int find(Component[] keys, Object key) {
+        int mask = keys.length - 1;
+        int slot = home(key, mask);
+        while (keys[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int home(Object key, int mask) {
+        int hash = System.identityHashCode(key);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    // Удаление со сдвигом следующих записей цепочки назад, без пометок удаленных ячеек
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        keys[gap] = null;
+        for (int next = (gap + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int home = home(keys[next], mask);
+            // Запись можно перенести в дыру, если дыра лежит между ее домашней ячейкой и текущей
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                positions[gap] = positions[next];
+                keys[next] = null;
+                gap = next;
+            }
+        }
+    }
+
+    private void resize() {
+        Component[] oldKeys = keys;
+        int[] oldPositions = positions;
+        keys = new Component[oldKeys.length * 2];
+        positions = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = find(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                positions[slot] = oldPositions[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package basepatterns.structural.composite;
+
+import basepatterns.output.Console;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Дерево компонентов, прочитанное из файла формата {@link TreeFileWriter} через отображение в память.
+ * <br>
+ * <br>При открытии читается только заголовок, а файл отображается участками до {@link #MAX_REGION} байт.
+ * Узлы не десериализуются: {@link Node} хранит лишь номер записи, а имя и связи читаются
+ * из отображенных страниц при обращении. Поэтому открытие дерева из миллионов узлов занимает
+ * миллисекунды, а в памяти оказываются только реально затронутые страницы файла.
+ * <br>
+ * <br><b>Формат файла</b> (little-endian):
+ * <br>&emsp;- Заголовок {@link #HEADER_SIZE} байт: сигнатура, версия, число узлов, смещение и длина блока имен.
+ * <br>&emsp;- Таблица узлов в прямом порядке обхода, по {@link #ENTRY_SIZE} байт на узел: размер поддерева,
+ * число детей, длина и смещение имени, вид узла. Первый ребенок идет сразу за родителем,
+ * следующий брат — через размер поддерева. Поэтому {@link Node#getChild(int)} перешагивает через
+ * всех предыдущих братьев, а {@link Node#children()} делает один шаг на ребенка.
+ * <br>&emsp;- Блок имен в UTF-8.
+ * <br>
+ * <br>Дерево доступно только для чтения.
+ */
+final class MappedTree {
+
+    static final int MAGIC = 0x43545245;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int ENTRY_SIZE = 32;
+
+    // Смещения полей заголовка
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_NODE_COUNT = 8;
+    static final int HEADER_NAMES_OFFSET = 16;
+    static final int HEADER_NAMES_LENGTH = 24;
+
+    // Смещения полей записи узла
+    static final int SUBTREE_SIZE = 0;
+    static final int CHILD_COUNT = 8;
+    static final int NAME_LENGTH = 12;
+    static final int NAME_OFFSET = 16;
+    static final int KIND = 24;
+
+    static final byte LEAF = 0;
+    static final byte COMPOSITE = 1;
+
+    // Кратно размеру записи, поэтому запись никогда не разрезается границей участка
+    private static final long MAX_REGION = 1L << 30;
+    private static final long REGION_MASK = MAX_REGION - 1;
+
+    private final Path file;
+    private final long nodeCount;
+    private final MappedByteBuffer[] table;
+    private final MappedByteBuffer[] names;
+
+    private MappedTree(Path file, long nodeCount, MappedByteBuffer[] table, MappedByteBuffer[] names) {
+        this.file = file;
+        this.nodeCount = nodeCount;
+        this.table = table;
+        this.names = names;
+    }
+
+    public static MappedTree open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IllegalArgumentException("Not a tree file: " + file);
+            }
+            MappedByteBuffer header = map(channel, 0, HEADER_SIZE);
+            if (header.getInt(HEADER_MAGIC) != MAGIC) {
+                throw new IllegalArgumentException("Not a tree file: " + file);
+            }
+            int version = header.getInt(HEADER_VERSION);
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported tree file version " + version + ": " + file);
+            }
+            long nodeCount = header.getLong(HEADER_NODE_COUNT);
+            long namesOffset = header.getLong(HEADER_NAMES_OFFSET);
+            long namesLength = header.getLong(HEADER_NAMES_LENGTH);
+            if (nodeCount <= 0 || namesOffset != HEADER_SIZE + nodeCount * ENTRY_SIZE
+                    || namesOffset + namesLength != size) {
+                throw new IllegalArgumentException("Corrupted tree file: " + file);
+            }
+            // Отображение остается действительным и после закрытия канала
+            return new MappedTree(file, nodeCount,
+                    mapRegions(channel, HEADER_SIZE, nodeCount * ENTRY_SIZE),
+                    mapRegions(channel, namesOffset, namesLength));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + file, e);
+        }
+    }
+
+    public Node root() {
+        return new Node(0);
+    }
+
+    public Node node(long index) {
+        checkIndex(index);
+        return new Node(index);
+    }
+
+    public long size() {
+        return nodeCount;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    private static MappedByteBuffer[] mapRegions(FileChannel channel, long start, long length) throws IOException {
+        MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((length + MAX_REGION - 1) / MAX_REGION)];
+        for (int i = 0; i < regions.length; i++) {
+            long offset = i * MAX_REGION;
+            regions[i] = map(channel, start + offset, Math.min(MAX_REGION, length - offset));
+        }
+        return regions;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private long entryLong(long index, int field) {
+        long position = index * ENTRY_SIZE + field;
+        return table[(int) (position >>> 30)].getLong((int) (position & REGION_MASK));
+    }
+
+    private int entryInt(long index, int field) {
+        long position = index * ENTRY_SIZE + field;
+        return table[(int) (position >>> 30)].getInt((int) (position & REGION_MASK));
+    }
+
+    private byte kind(long index) {
+        long position = index * ENTRY_SIZE + KIND;
+        return table[(int) (position >>> 30)].get((int) (position & REGION_MASK));
+    }
+
+    private long subtreeSize(long index) {
+        return entryLong(index, SUBTREE_SIZE);
+    }
+
+    private String name(long index) {
+        int length = entryInt(index, NAME_LENGTH);
+        long offset = entryLong(index, NAME_OFFSET);
+        byte[] bytes = new byte[length];
+        // Имя может пересекать границу участков, тогда оно собирается по частям
+        for (int copied = 0; copied < length; ) {
+            long position = offset + copied;
+            MappedByteBuffer region = names[(int) (position >>> 30)];
+            int start = (int) (position & REGION_MASK);
+            int chunk = Math.min(length - copied, region.capacity() - start);
+            region.get(start, bytes, copied, chunk);
+            copied += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void selfOperation(long index) {
+        if (kind(index) == LEAF) {
+            Console.println("Leaf " + name(index) + " is performing operation.");
+        } else {
+            Console.println("Composite " + name(index) + " is performing operation.");
+        }
+    }
+
+    // Поддерево в прямом порядке — это непрерывный отрезок таблицы, поэтому обход последовательный
+    private void operation(long root) {
+        long end = root + subtreeSize(root);
+        for (long index = root; index < end; index++) {
+            selfOperation(index);
+        }
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= nodeCount) {
+            throw new IndexOutOfBoundsException("Node " + index + " out of bounds for size " + nodeCount);
+        }
+    }
+
+    // Представление узла отображенного дерева
+    final class Node implements Component {
+        private final long index;
+
+        private Node(long index) {
+            this.index = index;
+        }
+
+        public long index() {
+            return index;
+        }
+
+        @Override
+        public String getName() {
+            return name(index);
+        }
+
+        // Число узлов поддерева, включая сам узел
+        public long getNodeCount() {
+            return subtreeSize(index);
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return kind(index) == LEAF;
+        }
+
+        @Override
+        public void operation() {
+            MappedTree.this.operation(index);
+        }
+
+        @Override
+        public void selfOperation() {
+            MappedTree.this.selfOperation(index);
+        }
+
+        @Override
+        public void add(Component component) {
+            throw new UnsupportedOperationException("Mapped tree is read-only.");
+        }
+
+        @Override
+        public void remove(Component component) {
+            throw new UnsupportedOperationException("Mapped tree is read-only.");
+        }
+
+        @Override
+        public Component getChild(int childIndex) {
+            if (isLeaf()) {
+                throw new UnsupportedOperationException("Leaf has no children.");
+            }
+            int count = getChildCount();
+            if (childIndex < 0 || childIndex >= count) {
+                throw new IndexOutOfBoundsException("Index " + childIndex + " out of bounds for length " + count);
+            }
+            long child = index + 1;
+            for (int i = 0; i < childIndex; i++) {
+                child += subtreeSize(child);
+            }
+            return new Node(child);
+        }
+
+        @Override
+        public Iterator<Component> children() {
+            return new Iterator<>() {
+                private long next = index + 1;
+                private int remaining = getChildCount();
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                public Component next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    Node child = new Node(next);
+                    remaining--;
+                    if (remaining > 0) {
+                        next += subtreeSize(next);
+                    }
+                    return child;
+                }
+            };
+        }
+
+        @Override
+        public int getChildCount() {
+            return entryInt(index, CHILD_COUNT);
+        }
+
+        private MappedTree tree() {
+            return MappedTree.this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Node node && node.tree() == tree() && node.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(MappedTree.this) * 31 + Long.hashCode(index);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package basepatterns.structural.composite;
+
+/**
+ * Пользовательский агрегат по листьям поддерева (моноид), который кешируется в {@link Composite}.
+ * <br>
+ * <br>{@link #combine(Object, Object)} должен быть ассоциативным, а {@link #identity()} — его нейтральным элементом:
+ * значения детей объединяются слева направо, начиная с {@code identity()}.
+ * Пустой композит дает {@code identity()}.
+ * <br>
+ * <br>Кеш хранится по ссылке на объект агрегата, поэтому один и тот же агрегат
+ * стоит создавать один раз и переиспользовать.
+ */
+interface SubtreeAggregate<T> {
+
+    T identity();
+
+    T ofLeaf(Component leaf);
+
+    T combine(T left, T right);
+}
@@ -0,0 +1,289 @@
+package basepatterns.structural.composite;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+
+import static basepatterns.structural.composite.MappedTree.CHILD_COUNT;
+import static basepatterns.structural.composite.MappedTree.COMPOSITE;
+import static basepatterns.structural.composite.MappedTree.ENTRY_SIZE;
+import static basepatterns.structural.composite.MappedTree.HEADER_MAGIC;
+import static basepatterns.structural.composite.MappedTree.HEADER_NAMES_LENGTH;
+import static basepatterns.structural.composite.MappedTree.HEADER_NAMES_OFFSET;
+import static basepatterns.structural.composite.MappedTree.HEADER_NODE_COUNT;
+import static basepatterns.structural.composite.MappedTree.HEADER_SIZE;
+import static basepatterns.structural.composite.MappedTree.HEADER_VERSION;
+import static basepatterns.structural.composite.MappedTree.KIND;
+import static basepatterns.structural.composite.MappedTree.LEAF;
+import static basepatterns.structural.composite.MappedTree.MAGIC;
+import static basepatterns.structural.composite.MappedTree.NAME_LENGTH;
+import static basepatterns.structural.composite.MappedTree.NAME_OFFSET;
+import static basepatterns.structural.composite.MappedTree.SUBTREE_SIZE;
+import static basepatterns.structural.composite.MappedTree.VERSION;
+
+/**
+ * Потоковая запись дерева компонентов в файл, который затем открывается через {@link MappedTree}.
+ * <br>
+ * <br>Узлы передаются в прямом порядке обхода: {@link #beginComposite(String)}, {@link #leaf(String)}
+ * и {@link #endComposite()}. В памяти держатся только буферы записи и стек открытых композитов,
+ * поэтому размер дерева ограничен диском, а не кучей. Размер поддерева и число детей композита
+ * становятся известны при его закрытии и дописываются на место в уже записанную таблицу.
+ * Имена копятся во временном файле рядом и переносятся в конец таблицы в {@link #close()}.
+ * <br>
+ * <br>Готовое дерево из {@link Component} записывается методом {@link #write(Component, Path)}.
+ * Класс не потокобезопасен.
+ */
+final class TreeFileWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Path namesFile;
+    private final FileChannel tableChannel;
+    private final FileChannel namesChannel;
+    // Хвост таблицы, еще не сброшенный на диск; BUFFER_SIZE кратен размеру записи
+    private final ByteBuffer tableBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer namesBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer patch = ByteBuffer.allocate(CHILD_COUNT + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    private long nodeCount;
+    private long bufferedFrom;
+    private long namesLength;
+
+    // Открытые композиты: номер записи и число уже записанных детей
+    private long[] openIndex = new long[16];
+    private int[] openChildren = new int[16];
+    private int depth;
+    private boolean rootClosed;
+    private boolean closed;
+
+    public TreeFileWriter(Path file) {
+        this.file = file;
+        Path namesFile = null;
+        FileChannel tableChannel = null;
+        try {
+            tableChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            Path directory = file.toAbsolutePath().getParent();
+            namesFile = Files.createTempFile(directory, file.getFileName().toString(), ".names");
+            this.namesChannel = FileChannel.open(namesFile, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        } catch (IOException e) {
+            closeQuietly(tableChannel);
+            deleteQuietly(namesFile);
+            throw new UncheckedIOException("Cannot create " + file, e);
+        }
+        this.namesFile = namesFile;
+        this.tableChannel = tableChannel;
+    }
+
+    /**
+     * Записывает дерево в файл. Обход идет со стеком курсоров по детям, без рекурсии.
+     * Листья и композиты различаются по {@link Component#isLeaf()}, как и в {@link FlatTree#copyOf(Component)}.
+     */
+    public static void write(Component root, Path file) {
+        try (TreeFileWriter writer = new TreeFileWriter(file)) {
+            if (root.isLeaf()) {
+                writer.leaf(root.getName());
+                return;
+            }
+            writer.beginComposite(root.getName());
+            Deque<Iterator<Component>> path = new ArrayDeque<>();
+            path.push(root.children());
+            while (!path.isEmpty()) {
+                Iterator<Component> children = path.peek();
+                if (!children.hasNext()) {
+                    path.pop();
+                    writer.endComposite();
+                    continue;
+                }
+                Component child = children.next();
+                if (child.isLeaf()) {
+                    writer.leaf(child.getName());
+                } else {
+                    writer.beginComposite(child.getName());
+                    path.push(child.children());
+                }
+            }
+        }
+    }
+
+    public void beginComposite(String name) {
+        long index = append(name, COMPOSITE);
+        if (depth == openIndex.length) {
+            openIndex = Arrays.copyOf(openIndex, depth * 2);
+            openChildren = Arrays.copyOf(openChildren, depth * 2);
+        }
+        openIndex[depth] = index;
+        openChildren[depth] = 0;
+        depth++;
+    }
+
+    public void leaf(String name) {
+        append(name, LEAF);
+        if (depth == 0) {
+            rootClosed = true;
+        }
+    }
+
+    public void endComposite() {
+        checkOpen();
+        if (depth == 0) {
+            throw new IllegalStateException("No open composite.");
+        }
+        depth--;
+        long index = openIndex[depth];
+        setSubtree(index, nodeCount - index, openChildren[depth]);
+        if (depth == 0) {
+            rootClosed = true;
+        }
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Дописывает блок имен и заголовок. Если дерево не завершено, файл остается
+     * недописанным, а метод бросает {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!rootClosed) {
+                throw new IllegalStateException("Tree is incomplete: " + depth + " composite(s) left open.");
+            }
+            flushTable();
+            flushNames();
+            long namesOffset = HEADER_SIZE + nodeCount * ENTRY_SIZE;
+            for (long moved = 0; moved < namesLength; ) {
+                moved += namesChannel.transferTo(moved, namesLength - moved, tableChannel.position(namesOffset + moved));
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(HEADER_MAGIC, MAGIC)
+                    .putInt(HEADER_VERSION, VERSION)
+                    .putLong(HEADER_NODE_COUNT, nodeCount)
+                    .putLong(HEADER_NAMES_OFFSET, namesOffset)
+                    .putLong(HEADER_NAMES_LENGTH, namesLength);
+            writeFully(tableChannel, header, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file, e);
+        } finally {
+            closeQuietly(namesChannel);
+            closeQuietly(tableChannel);
+            deleteQuietly(namesFile);
+        }
+    }
+
+    private long append(String name, byte kind) {
+        checkOpen();
+        if (rootClosed) {
+            throw new IllegalStateException("Tree already has a root.");
+        }
+        if (depth > 0) {
+            openChildren[depth - 1]++;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        long nameOffset = namesLength;
+        try {
+            if (bytes.length > namesBuffer.remaining()) {
+                flushNames();
+            }
+            if (bytes.length > namesBuffer.remaining()) {
+                writeFully(namesChannel, ByteBuffer.wrap(bytes), nameOffset);
+            } else {
+                namesBuffer.put(bytes);
+            }
+            namesLength += bytes.length;
+            if (!tableBuffer.hasRemaining()) {
+                flushTable();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file, e);
+        }
+        int position = tableBuffer.position();
+        tableBuffer.putLong(position + SUBTREE_SIZE, 1)
+                .putInt(position + CHILD_COUNT, 0)
+                .putInt(position + NAME_LENGTH, bytes.length)
+                .putLong(position + NAME_OFFSET, nameOffset)
+                .put(position + KIND, kind)
+                .position(position + ENTRY_SIZE);
+        return nodeCount++;
+    }
+
+    // Запись еще в буфере правится на месте, уже сброшенная — точечной записью в файл
+    private void setSubtree(long index, long subtreeSize, int childCount) {
+        if (index >= bufferedFrom) {
+            int position = (int) (index - bufferedFrom) * ENTRY_SIZE;
+            tableBuffer.putLong(position + SUBTREE_SIZE, subtreeSize)
+                    .putInt(position + CHILD_COUNT, childCount);
+            return;
+        }
+        patch.clear();
+        patch.putLong(SUBTREE_SIZE, subtreeSize).putInt(CHILD_COUNT, childCount);
+        try {
+            writeFully(tableChannel, patch, HEADER_SIZE + index * ENTRY_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file, e);
+        }
+    }
+
+    private void flushTable() throws IOException {
+        tableBuffer.flip();
+        writeFully(tableChannel, tableBuffer, HEADER_SIZE + bufferedFrom * ENTRY_SIZE);
+        tableBuffer.clear();
+        bufferedFrom = nodeCount;
+    }
+
+    private void flushNames() throws IOException {
+        namesBuffer.flip();
+        writeFully(namesChannel, namesBuffer, namesLength - namesBuffer.remaining());
+        namesBuffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed.");
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Основная ошибка уже брошена или файл записан
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Временный файл удалится вместе с каталогом
+            }
+        }
+    }
+}
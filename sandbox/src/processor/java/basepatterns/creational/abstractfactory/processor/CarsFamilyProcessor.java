@@ -0,0 +1,213 @@
+package basepatterns.creational.abstractfactory.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Обработчик аннотаций, который по классам с {@code @CarsFamily} генерирует реестр фабрик.
+ * <br>
+ * <br>Для каждого пакета с аннотированными фабриками создается класс {@code CarsFactories}:
+ * массив экземпляров фабрик и {@code switch} по имени семейства. Во время работы программы
+ * поиск фабрики не использует ни рефлексию, ни {@code ServiceLoader}.
+ * <br>
+ * <br>Реестр пакета генерируется в том же раунде, где найдены его фабрики, а не в последнем раунде:
+ * тогда сгенерированный класс сам проходит обработку и javac не предупреждает о файле,
+ * созданном в последнем раунде. Если в более позднем раунде (из кода, сгенерированного другими
+ * обработчиками) появится фабрика для пакета, реестр которого уже создан, это ошибка компиляции.
+ * <br>
+ * <br>Вложенные фабрики допускаются, если они статические и не приватные: в реестре они
+ * создаются по имени вместе с внешними классами.
+ * <br>
+ * <br>Обработчик лежит в {@code src/processor}, компилируется отдельным шагом до основного кода
+ * и в собранный jar не попадает (см. pom.xml), поэтому пользователи артефакта его не запускают.
+ */
+@SupportedAnnotationTypes(CarsFamilyProcessor.ANNOTATION)
+public class CarsFamilyProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "basepatterns.creational.abstractfactory.CarsFamily";
+    private static final String FACTORY = "basepatterns.creational.abstractfactory.CarsFactory";
+    private static final String REGISTRY = "CarsFactories";
+
+    // Пакет → (имя семейства → класс фабрики относительно пакета); еще не сгенерированные реестры
+    private final Map<String, Map<String, String>> families = new TreeMap<>();
+    // Пакеты, реестр которых уже создан
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        if (annotation != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                collect(element, annotation);
+            }
+        }
+        families.forEach(this::generate);
+        generated.addAll(families.keySet());
+        families.clear();
+        return true;
+    }
+
+    private void collect(Element element, TypeElement annotation) {
+        Messager messager = processingEnv.getMessager();
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@CarsFamily must be placed on a concrete class", element);
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        TypeMirror factory = processingEnv.getElementUtils().getTypeElement(FACTORY).asType();
+        if (!processingEnv.getTypeUtils().isAssignable(type.asType(), factory)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, type + " does not implement CarsFactory", element);
+            return;
+        }
+        if (!hasNoArgConstructor(type)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, type + " needs a non-private no-arg constructor", element);
+            return;
+        }
+        if (!isReachable(type)) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@CarsFamily on a nested class requires a static, non-private class", element);
+            return;
+        }
+        String family = familyName(element, annotation);
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String pkg = packageElement.getQualifiedName().toString();
+        if (generated.contains(pkg)) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Registry for package " + pkg + " was already generated in an earlier round", element);
+            return;
+        }
+        // Имя относительно пакета: у вложенного класса — вместе с внешними
+        String qualified = type.getQualifiedName().toString();
+        String className = packageElement.isUnnamed() ? qualified : qualified.substring(pkg.length() + 1);
+        String previous = families.computeIfAbsent(pkg, p -> new TreeMap<>())
+                .putIfAbsent(family, className);
+        if (previous != null) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Family \"" + family + "\" is already declared by " + previous, element);
+        }
+    }
+
+    // Класс верхнего уровня или статический вложенный класс; ни он, ни внешние классы не приватные
+    private static boolean isReachable(TypeElement type) {
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+                && !type.getEnclosingElement().getKind().isInterface()) {
+            return false;
+        }
+        Element element = type;
+        while (element instanceof TypeElement nested) {
+            if (nested.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (nested.getNestingKind() == NestingKind.TOP_LEVEL) {
+                return true;
+            }
+            if (nested.getNestingKind() != NestingKind.MEMBER) {
+                return false;
+            }
+            element = nested.getEnclosingElement();
+        }
+        return false;
+    }
+
+    private static boolean hasNoArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String familyName(Element element, TypeElement annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(annotation)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                        : mirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        return (String) entry.getValue().getValue();
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("@CarsFamily without value on " + element);
+    }
+
+    private void generate(String pkg, Map<String, String> factories) {
+        List<String> names = new ArrayList<>(factories.keySet());
+        StringBuilder src = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            src.append("package ").append(pkg).append(";\n\n");
+        }
+        src.append("// Сгенерировано ").append(CarsFamilyProcessor.class.getName()).append(", не редактировать\n");
+        src.append("final class ").append(REGISTRY).append(" {\n\n");
+        src.append("    private static final String[] FAMILIES = {");
+        for (int i = 0; i < names.size(); i++) {
+            src.append(i == 0 ? "" : ", ").append('"').append(escape(names.get(i))).append('"');
+        }
+        src.append("};\n\n");
+        src.append("    private static final CarsFactory[] FACTORIES = {");
+        for (int i = 0; i < names.size(); i++) {
+            src.append(i == 0 ? "" : ", ").append("new ").append(factories.get(names.get(i))).append("()");
+        }
+        src.append("};\n\n");
+        src.append("    private ").append(REGISTRY).append("() {}\n\n");
+        src.append("    static String[] families() {\n");
+        src.append("        return FAMILIES.clone();\n");
+        src.append("    }\n\n");
+        src.append("    // null, если семейство не зарегистрировано\n");
+        src.append("    static CarsFactory get(String family) {\n");
+        src.append("        switch (family) {\n");
+        for (int i = 0; i < names.size(); i++) {
+            src.append("            case \"").append(escape(names.get(i))).append("\": return FACTORIES[").append(i).append("];\n");
+        }
+        src.append("            default: return null;\n");
+        src.append("        }\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        Filer filer = processingEnv.getFiler();
+        try {
+            JavaFileObject file = filer.createSourceFile(pkg.isEmpty() ? REGISTRY : pkg + "." + REGISTRY);
+            try (Writer writer = file.openWriter()) {
+                writer.write(src.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write " + pkg + "." + REGISTRY + ": " + e.getMessage());
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,59 @@
+package basepatterns.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CreationMetricsTest {
+
+    @Test
+    void sampledMetricsCountEveryCreation() {
+        CreationMetrics metrics = new CreationMetrics("sampled", 16);
+        for (int i = 0; i < 16_000; i++) {
+            metrics.stop(String.class, metrics.start());
+        }
+        CreationMetrics.Snapshot snapshot = metrics.snapshot(String.class);
+        assertEquals(16_000, snapshot.getCount());
+        // В среднем 1000 замеров; границы с большим запасом, чтобы тест не был случайным
+        assertTrue(snapshot.getSampled() > 500 && snapshot.getSampled() < 2000, "sampled " + snapshot.getSampled());
+    }
+
+    @Test
+    void unsampledMetricsTimeEveryCreation() {
+        CreationMetrics metrics = new CreationMetrics("unsampled");
+        for (int i = 0; i < 100; i++) {
+            metrics.stop(Integer.class, metrics.start());
+        }
+        assertEquals(100, metrics.snapshot(Integer.class).getSampled());
+        assertEquals(100, metrics.getTotalCount());
+    }
+
+    @Test
+    void sampleIntervalMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CreationMetrics("bad", 10));
+        assertThrows(IllegalArgumentException.class, () -> new CreationMetrics("bad", 0));
+    }
+
+    @Test
+    void snapshotsArePublishedThroughJmx() throws JMException {
+        CreationMetrics metrics = new CreationMetrics("jmx-test");
+        metrics.record(String.class, 100);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = metrics.registerMBean();
+        try {
+            assertEquals(1L, server.getAttribute(objectName, "TotalCount"));
+            assertEquals(1, server.getAttribute(objectName, "SampleInterval"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(objectName));
+    }
+}
@@ -0,0 +1,98 @@
+package basepatterns.structural.composite;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentSpliteratorTest {
+
+    // Дробим, пока части больше total / CHUNKS; ни одна часть не должна превышать вдвое больший предел
+    private static final int CHUNKS = 16;
+
+    @Test
+    void wideTreeSplitsIntoBalancedChunks() {
+        assertBalanced(wide(500, 500));
+    }
+
+    @Test
+    void deepTreeSplitsIntoBalancedChunks() {
+        assertBalanced(binary(16));
+    }
+
+    @Test
+    void mappedTreeSplitsIntoBalancedChunks(@TempDir Path directory) {
+        Path file = directory.resolve("wide.tree");
+        TreeFileWriter.write(wide(300, 300), file);
+        assertBalanced(MappedTree.open(file).root());
+    }
+
+    @Test
+    void parallelStreamVisitsEveryNode() {
+        Composite root = wide(200, 200);
+        assertEquals(root.getNodeCount(), root.parallelStream().count());
+    }
+
+    private static void assertBalanced(Component root) {
+        List<Component> expected = new ArrayList<>();
+        root.stream().forEach(expected::add);
+        long limit = expected.size() / CHUNKS;
+
+        List<Spliterator<Component>> chunks = new ArrayList<>();
+        split(root.spliterator(), limit, chunks);
+
+        List<Component> actual = new ArrayList<>();
+        long largest = 0;
+        for (Spliterator<Component> chunk : chunks) {
+            int before = actual.size();
+            chunk.forEachRemaining(actual::add);
+            largest = Math.max(largest, actual.size() - before);
+        }
+        assertEquals(expected, actual, "split must keep the traversal order");
+        assertTrue(chunks.size() >= CHUNKS, "too few chunks: " + chunks.size());
+        assertTrue(largest <= 2 * limit, "largest chunk " + largest + " of " + expected.size());
+    }
+
+    // Рекурсивное деление, как в параллельном Stream; части складываются в порядке обхода
+    private static void split(Spliterator<Component> spliterator, long limit, List<Spliterator<Component>> chunks) {
+        if (spliterator.estimateSize() > limit) {
+            Spliterator<Component> prefix = spliterator.trySplit();
+            if (prefix != null) {
+                split(prefix, limit, chunks);
+                split(spliterator, limit, chunks);
+                return;
+            }
+        }
+        chunks.add(spliterator);
+    }
+
+    private static Composite wide(int composites, int leaves) {
+        Composite root = new Composite("root");
+        for (int i = 0; i < composites; i++) {
+            Composite child = new Composite("c" + i);
+            for (int j = 0; j < leaves; j++) {
+                child.add(new Leaf("l" + i + "." + j));
+            }
+            root.add(child);
+        }
+        return root;
+    }
+
+    private static Composite binary(int depth) {
+        Composite node = new Composite("d" + depth);
+        if (depth > 1) {
+            node.add(binary(depth - 1));
+            node.add(binary(depth - 1));
+        } else {
+            node.add(new Leaf("l"));
+            node.add(new Leaf("r"));
+        }
+        return node;
+    }
+}
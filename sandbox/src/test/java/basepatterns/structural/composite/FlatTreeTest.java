@@ -0,0 +1,56 @@
+package basepatterns.structural.composite;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlatTreeTest {
+
+    @Test
+    void deletedNodeRejectsEveryCall() {
+        FlatTree tree = new FlatTree();
+        FlatTree.Node root = tree.newComposite("root");
+        FlatTree.Node deleted = tree.newComposite("deleted");
+        FlatTree.Node leaf = tree.newLeaf("leaf");
+        tree.delete(deleted);
+
+        assertThrows(IllegalStateException.class, () -> deleted.add(leaf));
+        assertThrows(IllegalStateException.class, () -> deleted.remove(leaf));
+        assertThrows(IllegalStateException.class, deleted::getName);
+        assertThrows(IllegalStateException.class, deleted::getChildCount);
+        assertThrows(IllegalStateException.class, deleted::children);
+        root.add(leaf);
+        assertSame(leaf, root.getChild(0));
+    }
+
+    @Test
+    void staleViewDoesNotAliasReusedSlot() {
+        FlatTree tree = new FlatTree();
+        FlatTree.Node deleted = tree.newLeaf("deleted");
+        tree.delete(deleted);
+        FlatTree.Node reused = tree.newLeaf("reused");
+
+        assertSame(reused, tree.node(0), "slot must be reused for this test");
+        assertNotEquals(deleted, reused);
+        assertThrows(IllegalStateException.class, deleted::getName);
+        assertThrows(IllegalArgumentException.class, () -> tree.delete(deleted));
+        assertEquals("reused", reused.getName());
+    }
+
+    @Test
+    void copyKeepsDeepStructure() {
+        Composite root = new Composite("0");
+        Composite parent = root;
+        for (int depth = 1; depth < 100; depth++) {
+            Composite child = new Composite(String.valueOf(depth));
+            parent.add(child);
+            parent.add(new Leaf("leaf" + depth));
+            parent = child;
+        }
+        FlatTree.Node copy = FlatTree.copyOf(root);
+        assertEquals(root.stream().map(Component::getName).toList(), copy.stream().map(Component::getName).toList());
+    }
+}